@@ -0,0 +1,57 @@
+#!/usr/bin/env bash
+# Starts the application several times and reports, per run, the startup time Spring logs, the wall-clock time
+# until /actuator/health answers and the resident set size at that point. Every run uses the embedded H2
+# database of the default profile, so nothing but the build output is needed.
+#
+#   scripts/measure-startup.sh jvm [runs]      java -jar              (./mvnw -DskipTests package)
+#   scripts/measure-startup.sh aot [runs]      java -jar, AOT enabled (./mvnw -Pnative -DskipTests package)
+#   scripts/measure-startup.sh native [runs]   native executable      (./mvnw -Pnative -DskipTests native:compile)
+#
+# Extra JVM options go in JAVA_OPTS, e.g. JAVA_OPTS="-Xmx256m -XX:TieredStopAtLevel=1". PORT defaults to 18080.
+set -euo pipefail
+
+mode=${1:-jvm}
+runs=${2:-5}
+port=${PORT:-18080}
+target=$(cd "$(dirname "$0")/../target" && pwd)
+jar=$(ls "$target"/spring-boot-testing-*.jar | grep -v plain | head -n 1)
+
+case "$mode" in
+  jvm) command=(java ${JAVA_OPTS:-} -jar "$jar") ;;
+  aot) command=(java ${JAVA_OPTS:-} -Dspring.aot.enabled=true -jar "$jar") ;;
+  native) command=("$target/spring-boot-testing") ;;
+  *) echo "usage: $0 jvm|aot|native [runs]" >&2; exit 2 ;;
+esac
+
+log=$(mktemp)
+trap 'rm -f "$log"' EXIT
+
+printf '%-4s %12s %12s %10s\n' run started_s ready_ms rss_mib
+ready_times=()
+rss_values=()
+for run in $(seq 1 "$runs"); do
+  start=$(date +%s%N)
+  "${command[@]}" --server.port="$port" --spring.main.banner-mode=off >"$log" 2>&1 &
+  pid=$!
+  until curl -sf "http://localhost:$port/actuator/health" >/dev/null; do
+    if ! kill -0 "$pid" 2>/dev/null; then
+      cat "$log" >&2
+      exit 1
+    fi
+    sleep 0.02
+  done
+  ready_ms=$(( ($(date +%s%N) - start) / 1000000 ))
+  rss_mib=$(awk '/^VmRSS/ { printf "%.1f", $2 / 1024 }' "/proc/$pid/status")
+  started_s=$(sed -n 's/.*Started SpringBootTestingApplication in \([0-9.]*\) seconds.*/\1/p' "$log")
+  kill "$pid"
+  wait "$pid" 2>/dev/null || true
+
+  printf '%-4s %12s %12s %10s\n' "$run" "$started_s" "$ready_ms" "$rss_mib"
+  ready_times+=("$ready_ms")
+  rss_values+=("$rss_mib")
+done
+
+median() {
+  printf '%s\n' "$@" | sort -n | awk '{ values[NR] = $1 } END { print (NR % 2) ? values[(NR + 1) / 2] : (values[NR / 2] + values[NR / 2 + 1]) / 2 }'
+}
+printf 'median (%s, %d runs): ready %s ms, rss %s MiB\n' "$mode" "$runs" "$(median "${ready_times[@]}")" "$(median "${rss_values[@]}")"
@@ -0,0 +1,64 @@
+package com.practice.springboottesting.benchmark;
+
+import com.practice.springboottesting.SpringBootTestingApplication;
+import com.practice.springboottesting.model.Employee;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Boots the application against a private in-memory H2 database, so benchmarks run offline and never share
+ * state between forks. Any property can still be overridden with -jvmArgsAppend -D...
+ */
+final class BenchmarkApplication {
+
+    private BenchmarkApplication() {
+    }
+
+    static ConfigurableApplicationContext start(String... properties) {
+        return start(WebApplicationType.NONE, properties);
+    }
+
+    /**
+     * Same as {@link #start(String...)} but with the embedded Tomcat listening on a random port,
+     * available as the local.server.port property. Rate limiting and load shedding are off, since the
+     * benchmark client is one address sending as fast as it can.
+     */
+    static ConfigurableApplicationContext startWebServer(String... properties) {
+        String[] webDefaults = {
+                "server.port=0",
+                "employees.rate-limit.enabled=false",
+                "employees.load-shedding.enabled=false"
+        };
+        return start(WebApplicationType.SERVLET, Stream.concat(Stream.of(webDefaults), Stream.of(properties)).toArray(String[]::new));
+    }
+
+    private static ConfigurableApplicationContext start(WebApplicationType webApplicationType, String... properties) {
+        String[] defaults = {
+                "spring.datasource.url=jdbc:h2:mem:benchmark;DB_CLOSE_DELAY=-1",
+                "spring.jpa.show-sql=false",
+                "spring.main.banner-mode=off",
+                "logging.level.root=warn"
+        };
+        return new SpringApplicationBuilder(SpringBootTestingApplication.class)
+                .web(webApplicationType)
+                .properties(Stream.concat(Stream.of(defaults), Stream.of(properties)).toArray(String[]::new))
+                .run();
+    }
+
+    static List<Employee> newEmployees(int count, String emailPrefix) {
+        List<Employee> employees = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            employees.add(Employee.builder()
+                    .firstName("First" + (i % 500))
+                    .lastName("Last" + (i % 1000))
+                    .email(emailPrefix + i + "@example.com")
+                    .build());
+        }
+        return employees;
+    }
+}
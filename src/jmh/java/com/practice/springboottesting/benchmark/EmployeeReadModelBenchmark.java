@@ -0,0 +1,67 @@
+package com.practice.springboottesting.benchmark;
+
+import com.practice.springboottesting.repository.EmployeeRepository;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jol.info.GraphLayout;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reads every employee as managed entities (what GET /api/employees/ used to do) or as EmployeeView records,
+ * with and without name deduplication. Run with -prof gc: gc.alloc.rate.norm divided by rows is the bytes
+ * allocated per employee. The bytes per employee the result retains, measured with JOL, are printed at the
+ * end of each trial. Names repeat the way BenchmarkApplication.newEmployees generates them (500 first names,
+ * 1000 last names).
+ *
+ *   ./mvnw -Pbenchmark test-compile exec:exec -Djmh.args="EmployeeReadModelBenchmark -prof gc"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+// JOL needs the magic field offset mode to lay out records
+@Fork(value = 1, jvmArgsAppend = "-Djol.magicFieldOffset=true")
+public class EmployeeReadModelBenchmark {
+
+    @Param({"10000"})
+    public int rows;
+
+    @Param({"entity", "view", "view-deduplicated"})
+    public String readModel;
+
+    private ConfigurableApplicationContext context;
+
+    private EmployeeRepository employeeRepository;
+
+    private TransactionTemplate readOnlyTransaction;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        context = BenchmarkApplication.start("spring.cache.type=none",
+                "employees.read-model.deduplicate-names=" + readModel.equals("view-deduplicated"));
+        employeeRepository = context.getBean(EmployeeRepository.class);
+        readOnlyTransaction = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        readOnlyTransaction.setReadOnly(true);
+        employeeRepository.saveAll(BenchmarkApplication.newEmployees(rows, "read"));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        long retainedBytes = GraphLayout.parseInstance(readAll()).totalSize();
+        System.out.printf("%n%s: %d bytes retained per employee%n", readModel, retainedBytes / rows);
+        context.close();
+    }
+
+    @Benchmark
+    public List<?> readAll() {
+        if (readModel.equals("entity")) {
+            return readOnlyTransaction.execute(status -> employeeRepository.findAll());
+        }
+        return employeeRepository.findAllViews();
+    }
+}
@@ -0,0 +1,88 @@
+package com.practice.springboottesting.benchmark;
+
+import com.practice.springboottesting.model.Employee;
+import com.practice.springboottesting.repository.EmployeeRepository;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the query styles of EmployeeRepository on the same lookups; caching is disabled so every call
+ * reaches the database.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EmployeeRepositoryBenchmark {
+
+    @Param({"10000"})
+    public int rows;
+
+    private ConfigurableApplicationContext context;
+
+    private EmployeeRepository employeeRepository;
+
+    private List<Employee> employees;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        context = BenchmarkApplication.start("spring.cache.type=none");
+        employeeRepository = context.getBean(EmployeeRepository.class);
+        // unique first/last pairs, so the single-result finders never see collisions
+        employees = BenchmarkApplication.newEmployees(rows, "repo");
+        for (int i = 0; i < employees.size(); i++) {
+            employees.get(i).setFirstName("First" + i);
+        }
+        employees = employeeRepository.saveAll(employees);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    private Employee randomEmployee() {
+        return employees.get(ThreadLocalRandom.current().nextInt(employees.size()));
+    }
+
+    @Benchmark
+    public Optional<Employee> findById() {
+        return employeeRepository.findById(randomEmployee().getId());
+    }
+
+    @Benchmark
+    public Optional<Employee> findByEmail() {
+        return employeeRepository.findByEmail(randomEmployee().getEmail());
+    }
+
+    @Benchmark
+    public Employee findByFirstNameAndLastNameJpql() {
+        Employee employee = randomEmployee();
+        return employeeRepository.findByFirstNameAndLastName(employee.getFirstName(), employee.getLastName());
+    }
+
+    @Benchmark
+    public Employee findByFirstNameAndLastNameJpqlNamedParams() {
+        Employee employee = randomEmployee();
+        return employeeRepository.findByFirstNameAndLastNameParams(employee.getFirstName(), employee.getLastName());
+    }
+
+    @Benchmark
+    public Employee findByFirstNameAndLastNameNative() {
+        Employee employee = randomEmployee();
+        return employeeRepository.findByFirstNameAndLastNameSql(employee.getFirstName(), employee.getLastName());
+    }
+
+    @Benchmark
+    public Employee findByFirstNameAndLastNameNativeNamedParams() {
+        Employee employee = randomEmployee();
+        return employeeRepository.findByFirstNameAndLastNameParamsSql(employee.getFirstName(), employee.getLastName());
+    }
+}
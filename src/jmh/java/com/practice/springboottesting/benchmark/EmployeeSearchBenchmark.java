@@ -0,0 +1,41 @@
+package com.practice.springboottesting.benchmark;
+
+import com.practice.springboottesting.model.Employee;
+import com.practice.springboottesting.model.EmployeeSummary;
+import com.practice.springboottesting.search.EmployeeSearchIndex;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EmployeeSearchBenchmark {
+
+    @Param({"10000", "100000"})
+    public int rows;
+
+    // a broad prefix, a narrow one, two words and a typo that only the trigram fallback resolves
+    @Param({"f", "last99", "first4 last9", "serach1234"})
+    public String query;
+
+    private EmployeeSearchIndex searchIndex;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        searchIndex = new EmployeeSearchIndex();
+        long id = 1;
+        for (Employee employee : BenchmarkApplication.newEmployees(rows, "search")) {
+            searchIndex.index(new EmployeeSummary(id++, employee.getFirstName(), employee.getLastName(), employee.getEmail()));
+        }
+    }
+
+    @Benchmark
+    public List<EmployeeSummary> suggest() {
+        return searchIndex.suggest(query, 10);
+    }
+}
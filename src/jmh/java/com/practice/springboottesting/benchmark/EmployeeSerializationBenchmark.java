@@ -0,0 +1,55 @@
+package com.practice.springboottesting.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import com.practice.springboottesting.model.Employee;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EmployeeSerializationBenchmark {
+
+    @Param({"100", "10000"})
+    public int size;
+
+    /** "reflection" is Jackson's default, "blackbird" and "smile-blackbird" are what JacksonConfig serves. */
+    @Param({"reflection", "blackbird", "smile-blackbird"})
+    public String mapper;
+
+    private ObjectMapper objectMapper;
+
+    private List<Employee> employees;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        // same defaults Spring Boot applies to the MVC message converter
+        Jackson2ObjectMapperBuilder builder = Jackson2ObjectMapperBuilder.json();
+        if (mapper.endsWith("blackbird")) {
+            builder.modulesToInstall(new BlackbirdModule());
+        }
+        if (mapper.startsWith("smile")) {
+            builder.factory(new SmileFactory());
+        }
+        objectMapper = builder.build();
+        employees = BenchmarkApplication.newEmployees(size, "json");
+        for (int i = 0; i < employees.size(); i++) {
+            employees.get(i).setId(i + 1);
+            employees.get(i).setVersion(0L);
+        }
+    }
+
+    @Benchmark
+    public byte[] serializeEmployeeList() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(employees);
+    }
+}
@@ -0,0 +1,70 @@
+package com.practice.springboottesting.benchmark;
+
+import com.practice.springboottesting.model.Employee;
+import com.practice.springboottesting.model.EmployeeView;
+import com.practice.springboottesting.service.EmployeeService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EmployeeServiceBenchmark {
+
+    @Param({"1000"})
+    public int rows;
+
+    /** "caffeine" measures the cached read path, "none" the database round trip. */
+    @Param({"caffeine", "none"})
+    public String cacheType;
+
+    private final AtomicLong emailSequence = new AtomicLong();
+
+    private ConfigurableApplicationContext context;
+
+    private EmployeeService employeeService;
+
+    private long[] ids;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        context = BenchmarkApplication.start("spring.cache.type=" + cacheType);
+        employeeService = context.getBean(EmployeeService.class);
+        List<Employee> employees = employeeService.saveAll(BenchmarkApplication.newEmployees(rows, "seed"));
+        ids = employees.stream().mapToLong(Employee::getId).toArray();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Employee save() {
+        return employeeService.save(Employee.builder()
+                .firstName("Bench")
+                .lastName("Mark")
+                .email("save" + emailSequence.incrementAndGet() + "@example.com")
+                .build());
+    }
+
+    @Benchmark
+    public Optional<Employee> getEmployeeById() {
+        return employeeService.getEmployeeById(ids[ThreadLocalRandom.current().nextInt(ids.length)]);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public List<EmployeeView> getAllEmployees() {
+        return employeeService.getAllEmployees();
+    }
+}
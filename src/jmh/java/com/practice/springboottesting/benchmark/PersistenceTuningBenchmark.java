@@ -0,0 +1,80 @@
+package com.practice.springboottesting.benchmark;
+
+import com.practice.springboottesting.model.Employee;
+import com.practice.springboottesting.service.EmployeeService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bulk insert cost with Hibernate batching off ("untuned") and with the settings of application-prod.properties
+ * ("tuned"). Against PostgreSQL (-p jdbcUrl=jdbc:postgresql://... with credentials in SPRING_DATASOURCE_USERNAME
+ * and SPRING_DATASOURCE_PASSWORD) the tuned run also rewrites batches into multi-row inserts.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PersistenceTuningBenchmark {
+
+    @Param({"untuned", "tuned"})
+    public String settings;
+
+    @Param({"jdbc:h2:mem:benchmark;DB_CLOSE_DELAY=-1"})
+    public String jdbcUrl;
+
+    @Param({"500"})
+    public int batchRows;
+
+    private final AtomicLong emailSequence = new AtomicLong();
+
+    private ConfigurableApplicationContext context;
+
+    private EmployeeService employeeService;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        List<String> properties = new ArrayList<>(List.of("spring.datasource.url=" + jdbcUrl));
+        if (settings.equals("untuned")) {
+            properties.add("spring.jpa.properties.hibernate.jdbc.batch_size=1");
+            properties.add("spring.jpa.properties.hibernate.order_inserts=false");
+        } else {
+            properties.add("spring.jpa.properties.hibernate.jdbc.batch_size=50");
+            properties.add("spring.jpa.properties.hibernate.order_inserts=true");
+            properties.add("spring.jpa.properties.hibernate.order_updates=true");
+            properties.add("spring.jpa.properties.hibernate.query.in_clause_parameter_padding=true");
+            properties.add("spring.datasource.hikari.auto-commit=false");
+            properties.add("spring.jpa.properties.hibernate.connection.provider_disables_autocommit=true");
+            if (jdbcUrl.startsWith("jdbc:postgresql:")) {
+                properties.add("spring.datasource.hikari.data-source-properties.reWriteBatchedInserts=true");
+                properties.add("spring.datasource.hikari.data-source-properties.prepareThreshold=3");
+            }
+        }
+        context = BenchmarkApplication.start(properties.toArray(String[]::new));
+        employeeService = context.getBean(EmployeeService.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<Employee> saveAll() {
+        List<Employee> employees = new ArrayList<>(batchRows);
+        for (int i = 0; i < batchRows; i++) {
+            employees.add(Employee.builder()
+                    .firstName("Bench")
+                    .lastName("Mark")
+                    .email("tuning" + emailSequence.incrementAndGet() + "@example.com")
+                    .build());
+        }
+        return employeeService.saveAll(employees);
+    }
+}
@@ -0,0 +1,84 @@
+package com.practice.springboottesting.benchmark;
+
+import com.practice.springboottesting.model.Employee;
+import com.practice.springboottesting.service.EmployeeService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Load test comparing Tomcat's platform thread pool with the virtual thread mode: each operation is a burst of
+ * concurrent GET /api/employees/{id}/ calls. Virtual threads need a Java 21 JVM (run Maven with JAVA_HOME on 21);
+ * point spring.datasource.url at a real database to see the effect of a slow one.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Fork(1)
+public class RequestThreadingBenchmark {
+
+    @Param({"platform", "virtual"})
+    public String threads;
+
+    @Param({"1000"})
+    public int concurrentRequests;
+
+    private ConfigurableApplicationContext context;
+
+    private HttpClient httpClient;
+
+    private List<URI> employeeUris;
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Outcomes {
+        public long succeeded;
+
+        public long rejected;
+    }
+
+    @Setup(Level.Trial)
+    public void setup() {
+        context = BenchmarkApplication.startWebServer(
+                "spring.cache.type=none",
+                "employees.virtual-threads.enabled=" + threads.equals("virtual"));
+        String baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port") + "/api/employees/";
+
+        employeeUris = new ArrayList<>();
+        for (Employee employee : context.getBean(EmployeeService.class).saveAll(BenchmarkApplication.newEmployees(100, "load"))) {
+            employeeUris.add(URI.create(baseUrl + employee.getId() + "/"));
+        }
+        httpClient = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public void burst(Outcomes outcomes) {
+        List<CompletableFuture<HttpResponse<Void>>> responses = new ArrayList<>(concurrentRequests);
+        for (int i = 0; i < concurrentRequests; i++) {
+            HttpRequest request = HttpRequest.newBuilder(employeeUris.get(i % employeeUris.size())).GET().build();
+            responses.add(httpClient.sendAsync(request, HttpResponse.BodyHandlers.discarding()));
+        }
+        for (CompletableFuture<HttpResponse<Void>> response : responses) {
+            if (response.join().statusCode() == 200) {
+                outcomes.succeeded++;
+            } else {
+                outcomes.rejected++;
+            }
+        }
+    }
+}
@@ -1,9 +1,27 @@
 package com.practice.springboottesting;
 
+import com.practice.springboottesting.config.EmployeeRuntimeHints;
 import org.springframework.boot.SpringApplication;
-import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.SpringBootConfiguration;
+import org.springframework.boot.autoconfigure.AutoConfigurationExcludeFilter;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.context.TypeExcludeFilter;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.FilterType;
+import org.springframework.context.annotation.ImportRuntimeHints;
 
-@SpringBootApplication
+/**
+ * Same as {@code @SpringBootApplication}, except that the reactive variant under {@code reactive} is left to
+ * {@link com.practice.springboottesting.reactive.ReactiveEmployeeApplication}.
+ */
+@SpringBootConfiguration
+@EnableAutoConfiguration
+@ComponentScan(excludeFilters = {
+		@ComponentScan.Filter(type = FilterType.CUSTOM, classes = TypeExcludeFilter.class),
+		@ComponentScan.Filter(type = FilterType.CUSTOM, classes = AutoConfigurationExcludeFilter.class),
+		@ComponentScan.Filter(type = FilterType.REGEX, pattern = "com\\.practice\\.springboottesting\\.reactive\\..*")
+})
+@ImportRuntimeHints(EmployeeRuntimeHints.class)
 public class SpringBootTestingApplication {
 
 	public static void main(String[] args) {
@@ -0,0 +1,42 @@
+package com.practice.springboottesting.config;
+
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.async.CallableProcessingInterceptor;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.concurrent.Callable;
+
+/**
+ * Streaming responses (stream=true and the exports) run as async requests bounded by spring.mvc.async.request-timeout.
+ * One that times out before sending anything gets the usual 503. One that has already sent part of its body cannot
+ * change its status, and completing it would end the chunked body cleanly, so the client would keep a truncated
+ * file that looks whole. Failing the request instead makes Tomcat close the connection without the final chunk,
+ * which HTTP clients report as an incomplete transfer.
+ */
+@Configuration
+public class AsyncTimeoutConfig implements WebMvcConfigurer {
+
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        configurer.registerCallableInterceptors(new CallableProcessingInterceptor() {
+            @Override
+            public <T> Object handleTimeout(NativeWebRequest request, Callable<T> task) {
+                HttpServletResponse response = request.getNativeResponse(HttpServletResponse.class);
+                if (response == null || !response.isCommitted()) {
+                    return RESULT_NONE;
+                }
+                return new IncompleteResponseException("Timed out after part of the response was sent");
+            }
+        });
+    }
+
+    /** Left unhandled on purpose, so it reaches the container with the response already committed. */
+    static class IncompleteResponseException extends RuntimeException {
+        IncompleteResponseException(String message) {
+            super(message);
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package com.practice.springboottesting.config;
+
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+/**
+ * Caches are Caffeine backed; size, expiry and stats recording come from spring.cache.caffeine.spec.
+ * The cache advice runs outside the transaction advice, so a hit never begins a transaction or takes a connection.
+ * For the same reason writes do not evict through @CacheEvict; EmployeeCacheEvictor does it after commit.
+ */
+@Configuration
+@EnableCaching(order = Ordered.HIGHEST_PRECEDENCE)
+public class CacheConfig {
+    public static final String EMPLOYEES_CACHE = "employees";
+}
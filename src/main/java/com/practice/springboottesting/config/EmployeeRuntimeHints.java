@@ -0,0 +1,37 @@
+package com.practice.springboottesting.config;
+
+import com.practice.springboottesting.model.Employee;
+import com.practice.springboottesting.model.EmployeeCollectionVersion;
+import com.practice.springboottesting.model.EmployeeSummary;
+import com.practice.springboottesting.model.EmployeeVersion;
+import org.springframework.aot.hint.BindingReflectionHintsRegistrar;
+import org.springframework.aot.hint.ExecutableMode;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.aot.hint.TypeReference;
+
+import java.util.List;
+import java.util.concurrent.Executors;
+
+/**
+ * Reflection and resources the native image cannot discover on its own. Controller payloads and JPA entities are registered by
+ * Spring's AOT processing; what is left are types only reached through strings or mappers outside a controller:
+ * the Lombok accessors of Employee, read and written by the CSV and outbox mappers, the records built by JPQL
+ * constructor expressions and Spring Data projections, the Java 21 executor behind employees.virtual-threads, and
+ * the per-database Flyway migrations under db/vendor.
+ */
+public class EmployeeRuntimeHints implements RuntimeHintsRegistrar {
+
+    @Override
+    public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+        new BindingReflectionHintsRegistrar().registerReflectionHints(hints.reflection(), Employee.class);
+        hints.reflection().registerTypes(
+                TypeReference.listOf(EmployeeSummary.class, EmployeeVersion.class, EmployeeCollectionVersion.class),
+                type -> type.withMembers(MemberCategory.INVOKE_DECLARED_CONSTRUCTORS, MemberCategory.INVOKE_PUBLIC_METHODS));
+        // Boot registers db/migration/* itself, not the per-database migrations of spring.flyway.locations
+        hints.resources().registerPattern("db/vendor/*/*.sql");
+        hints.reflection().registerType(Executors.class,
+                type -> type.withMethod("newVirtualThreadPerTaskExecutor", List.of(), ExecutableMode.INVOKE));
+    }
+}
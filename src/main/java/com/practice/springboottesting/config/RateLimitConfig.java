@@ -0,0 +1,68 @@
+package com.practice.springboottesting.config;
+
+import com.practice.springboottesting.filter.EndpointClass;
+import com.practice.springboottesting.filter.LoadSheddingFilter;
+import com.practice.springboottesting.filter.RateLimitFilter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.util.StringUtils;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Protects the connection pool from clients calling expensive endpoints in a loop: requests are first charged
+ * against the client's rate limit, then admitted by the concurrency limit of their endpoint class. Both run after
+ * the observation filter, so rejected requests still show up in http.server.requests.
+ */
+@Configuration
+public class RateLimitConfig {
+
+    private static final int RATE_LIMIT_ORDER = Ordered.HIGHEST_PRECEDENCE + 10;
+
+    @Bean
+    @ConditionalOnProperty(name = "employees.rate-limit.enabled", havingValue = "true", matchIfMissing = true)
+    public FilterRegistrationBean<RateLimitFilter> rateLimitFilter(
+            @Value("${employees.rate-limit.tokens-per-second:50}") double tokensPerSecond,
+            @Value("${employees.rate-limit.burst:100}") int burst,
+            @Value("${employees.rate-limit.client-key-header:}") String clientKeyHeader,
+            MeterRegistry meterRegistry) {
+        Function<HttpServletRequest, String> clientKey = StringUtils.hasText(clientKeyHeader)
+                ? RateLimitFilter.header(clientKeyHeader)
+                : RateLimitFilter.remoteAddress();
+        FilterRegistrationBean<RateLimitFilter> registration =
+                new FilterRegistrationBean<>(new RateLimitFilter(tokensPerSecond, burst, clientKey, meterRegistry));
+        registration.addUrlPatterns("/api/*");
+        registration.setOrder(RATE_LIMIT_ORDER);
+        return registration;
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "employees.load-shedding.enabled", havingValue = "true", matchIfMissing = true)
+    public FilterRegistrationBean<LoadSheddingFilter> loadSheddingFilter(
+            @Value("${employees.load-shedding.standard.max-concurrent:64}") int standardConcurrent,
+            @Value("${employees.load-shedding.standard.max-queued:128}") int standardQueued,
+            @Value("${employees.load-shedding.full-scan.max-concurrent:2}") int fullScanConcurrent,
+            @Value("${employees.load-shedding.full-scan.max-queued:4}") int fullScanQueued,
+            @Value("${employees.load-shedding.bulk.max-concurrent:2}") int bulkConcurrent,
+            @Value("${employees.load-shedding.bulk.max-queued:2}") int bulkQueued,
+            @Value("${employees.load-shedding.queue-timeout:1s}") Duration queueTimeout,
+            MeterRegistry meterRegistry) {
+        Map<EndpointClass, LoadSheddingFilter.Limit> limits = Map.of(
+                EndpointClass.STANDARD, new LoadSheddingFilter.Limit(standardConcurrent, standardQueued),
+                EndpointClass.FULL_SCAN, new LoadSheddingFilter.Limit(fullScanConcurrent, fullScanQueued),
+                EndpointClass.BULK, new LoadSheddingFilter.Limit(bulkConcurrent, bulkQueued));
+        FilterRegistrationBean<LoadSheddingFilter> registration =
+                new FilterRegistrationBean<>(new LoadSheddingFilter(limits, queueTimeout, meterRegistry));
+        registration.addUrlPatterns("/api/*");
+        registration.setOrder(RATE_LIMIT_ORDER + 1);
+        return registration;
+    }
+}
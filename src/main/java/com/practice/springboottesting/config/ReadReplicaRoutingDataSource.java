@@ -0,0 +1,21 @@
+package com.practice.springboottesting.config;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Sends connections requested inside read-only transactions to the replica and everything else to the primary.
+ * It has to sit behind a LazyConnectionDataSourceProxy: the read-only flag is only set after the transaction
+ * manager asks for a connection, so the physical one must be fetched on the first statement.
+ */
+public class ReadReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    public enum Target {
+        PRIMARY, REPLICA
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return TransactionSynchronizationManager.isCurrentTransactionReadOnly() ? Target.REPLICA : Target.PRIMARY;
+    }
+}
@@ -0,0 +1,78 @@
+package com.practice.springboottesting.config;
+
+import com.practice.springboottesting.filter.ConnectionPermitFilter;
+import org.apache.coyote.ProtocolHandler;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.support.TaskExecutorAdapter;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Opt-in mode (employees.virtual-threads.enabled=true) serving requests and async MVC work on virtual threads.
+ * Needs a Java 21 runtime; the executor is looked up reflectively so the project still builds for Java 17.
+ */
+@Configuration
+@ConditionalOnProperty(name = "employees.virtual-threads.enabled", havingValue = "true")
+public class VirtualThreadsConfig {
+
+    /** A bean so the context shuts it down; by then the web server has stopped handing it requests. */
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService virtualThreadExecutor() {
+        return newVirtualThreadPerTaskExecutor();
+    }
+
+    @Bean
+    public TomcatProtocolHandlerCustomizer<ProtocolHandler> virtualThreadsProtocolHandlerCustomizer(ExecutorService virtualThreadExecutor) {
+        return protocolHandler -> protocolHandler.setExecutor(virtualThreadExecutor);
+    }
+
+    @Bean(name = TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME)
+    public AsyncTaskExecutor applicationTaskExecutor(ExecutorService virtualThreadExecutor) {
+        return new TaskExecutorAdapter(virtualThreadExecutor);
+    }
+
+    @Bean
+    public ConnectionPermitFilter connectionPermitFilter(
+            @Value("${employees.virtual-threads.max-concurrent-requests:${spring.datasource.hikari.maximum-pool-size:10}}") int permits,
+            @Value("${employees.virtual-threads.acquire-timeout:2s}") Duration acquireTimeout) {
+        return new ConnectionPermitFilter(permits, acquireTimeout);
+    }
+
+    @Bean
+    public FilterRegistrationBean<ConnectionPermitFilter> connectionPermitFilterRegistration(ConnectionPermitFilter connectionPermitFilter) {
+        FilterRegistrationBean<ConnectionPermitFilter> registration = new FilterRegistrationBean<>(connectionPermitFilter);
+        registration.addUrlPatterns("/api/*");
+        return registration;
+    }
+
+    @Bean
+    public WebMvcConfigurer connectionPermitAsyncConfigurer(ConnectionPermitFilter connectionPermitFilter) {
+        return new WebMvcConfigurer() {
+            @Override
+            public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+                configurer.registerCallableInterceptors(connectionPermitFilter.asyncInterceptor());
+            }
+        };
+    }
+
+    private static ExecutorService newVirtualThreadPerTaskExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (NoSuchMethodException e) {
+            throw new IllegalStateException("employees.virtual-threads.enabled requires Java 21 or newer", e);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Could not create the virtual thread executor", e);
+        }
+    }
+}
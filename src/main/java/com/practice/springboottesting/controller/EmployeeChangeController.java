@@ -0,0 +1,27 @@
+package com.practice.springboottesting.controller;
+
+import com.practice.springboottesting.event.EmployeeChangeFeed;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * Lets consumers follow creates, updates and deletes as a Server-Sent Events stream instead of polling the whole
+ * collection. Reconnecting clients resume from Last-Event-ID, which takes precedence over the since parameter.
+ */
+@RestController
+@RequestMapping("/api/employees/")
+public class EmployeeChangeController {
+
+    private EmployeeChangeFeed changeFeed;
+
+    public EmployeeChangeController(EmployeeChangeFeed changeFeed) {
+        this.changeFeed = changeFeed;
+    }
+
+    @GetMapping(value = "changes", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamChanges(@RequestParam(value = "since", defaultValue = "0") long since,
+                                    @RequestHeader(value = "Last-Event-ID", required = false) Long lastEventId) {
+        return changeFeed.subscribe(lastEventId != null ? lastEventId : since);
+    }
+}
@@ -1,20 +1,61 @@
 package com.practice.springboottesting.controller;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.practice.springboottesting.exception.ResourceConflictException;
+import com.practice.springboottesting.exception.StaleVersionException;
 import com.practice.springboottesting.model.Employee;
+import com.practice.springboottesting.model.EmployeeCollectionVersion;
+import com.practice.springboottesting.model.EmployeeLookup;
+import com.practice.springboottesting.model.EmployeeSummary;
+import com.practice.springboottesting.model.EmployeeVersion;
+import com.practice.springboottesting.model.EmployeeView;
 import com.practice.springboottesting.service.EmployeeService;
+import org.springframework.data.domain.Slice;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
 
 @RestController
 @RequestMapping("/api/employees/")
 public class EmployeeController {
+    public static final String APPLICATION_NDJSON_VALUE = "application/x-ndjson";
+
+    public static final MediaType TEXT_CSV = MediaType.parseMediaType("text/csv");
+
+    private static final int NDJSON_CHUNK_SIZE = 1000;
+
+    public static final int MAX_LOOKUP_IDS = 10_000;
+
     private EmployeeService employeeService;
 
-    public EmployeeController(EmployeeService employeeService) {
+    private ObjectMapper objectMapper;
+
+    public EmployeeController(EmployeeService employeeService, ObjectMapper objectMapper) {
         this.employeeService = employeeService;
+        this.objectMapper = objectMapper;
     }
 
     @PostMapping
@@ -23,34 +64,330 @@ public class EmployeeController {
         return employeeService.save(employee);
     }
 
+    @PostMapping(value = "batch", consumes = MediaType.APPLICATION_JSON_VALUE)
+    @ResponseStatus(HttpStatus.CREATED)
+    public List<Employee> createEmployees(@RequestBody List<Employee> employees) {
+        return employeeService.saveAll(employees);
+    }
+
+    /**
+     * Every NDJSON_CHUNK_SIZE lines are saved in a transaction of their own, so when a line fails the chunks before
+     * it stay saved. The error body has created, the number of leading lines saved, and failedLine, the first line
+     * at fault; the upload resumes by sending the lines after the first created ones again.
+     */
+    @PostMapping(value = "batch", consumes = APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<Map<String, Object>> createEmployeesFromNdjson(InputStream body) throws IOException {
+        int created = 0;
+        int lines = 0;
+        List<Employee> chunk = new ArrayList<>(NDJSON_CHUNK_SIZE);
+        try (MappingIterator<Employee> employees = objectMapper.readerFor(Employee.class).readValues(body)) {
+            while (employees.hasNextValue()) {
+                chunk.add(employees.nextValue());
+                lines++;
+                if (chunk.size() == NDJSON_CHUNK_SIZE) {
+                    created += employeeService.saveAll(chunk).size();
+                    chunk.clear();
+                }
+            }
+            if (!chunk.isEmpty()) {
+                created += employeeService.saveAll(chunk).size();
+            }
+        } catch (JsonProcessingException e) {
+            return batchFailure(HttpStatus.BAD_REQUEST, created, lines + 1,
+                    "Could not read line " + (lines + 1) + ": " + e.getOriginalMessage());
+        } catch (ResourceConflictException e) {
+            return batchFailure(HttpStatus.CONFLICT, created, created + 1 + firstConflict(chunk), e.getMessage());
+        }
+        return ResponseEntity.status(HttpStatus.CREATED).body(Map.of("created", created));
+    }
+
+    private static ResponseEntity<Map<String, Object>> batchFailure(HttpStatus status, int created, int failedLine,
+                                                                    String message) {
+        return ResponseEntity.status(status).body(Map.of("created", created, "failedLine", failedLine, "message", message));
+    }
+
+    /** Index of the first employee whose email repeats an earlier one or is already stored, 0 if none is found. */
+    private int firstConflict(List<Employee> chunk) {
+        Set<String> existingEmails = employeeService.findExistingEmails(chunk.stream().map(Employee::getEmail).toList());
+        Set<String> seenEmails = new HashSet<>();
+        for (int i = 0; i < chunk.size(); i++) {
+            String email = chunk.get(i).getEmail();
+            if (existingEmails.contains(email) || !seenEmails.add(email)) {
+                return i;
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * The collection tag is read before the list, so a concurrent write can only make it older than the body,
+     * never newer; the worst case is one extra full response.
+     */
     @GetMapping
-    public List<Employee> getAllEmployees() {
-        return employeeService.getAllEmployees();
+    public ResponseEntity<List<EmployeeView>> getAllEmployees(
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        EmployeeCollectionVersion collectionVersion = employeeService.getEmployeesVersion();
+        String eTag = collectionETag(collectionVersion);
+        if (eTagMatches(ifNoneMatch, eTag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).build();
+        }
+        return ResponseEntity.ok().eTag(eTag).body(employeeService.getAllEmployees());
     }
 
+    @GetMapping(params = "limit")
+    public List<EmployeeView> getEmployeesPage(@RequestParam(value = "after", defaultValue = "0") long afterId,
+                                               @RequestParam("limit") int limit) {
+        return employeeService.getEmployeesAfter(afterId, limit);
+    }
+
+    @GetMapping(params = "ids")
+    public EmployeeLookup getEmployeesByIds(@RequestParam("ids") long[] employeeIds) {
+        return lookupEmployees(employeeIds);
+    }
+
+    /** Without this both mappings above match equally well, which Spring reports as a 500. */
+    @GetMapping(params = {"ids", "limit"})
+    public void rejectIdsWithLimit() {
+        throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "ids and limit cannot be combined");
+    }
+
+    /** Same as GET with ids, for sets of ids too long for a URL. */
+    @PostMapping(value = "lookup", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public EmployeeLookup lookupEmployees(@RequestBody long[] employeeIds) {
+        if (employeeIds.length > MAX_LOOKUP_IDS) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "At most " + MAX_LOOKUP_IDS + " ids per lookup");
+        }
+        return employeeService.getEmployeesByIds(employeeIds);
+    }
+
+    @GetMapping(params = "stream=true")
+    public ResponseEntity<StreamingResponseBody> streamAllEmployees() {
+        ObjectWriter employeeWriter = objectMapper.writerFor(Employee.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+
+        StreamingResponseBody body = outputStream -> {
+            try (JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream)
+                    .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET)) {
+                generator.writeStartArray();
+                employeeService.forEachEmployee(employee -> {
+                    try {
+                        employeeWriter.writeValue(generator, employee);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+                generator.writeEndArray();
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(body);
+    }
+
+    /**
+     * Full dumps for offline consumers. Rows come from a forward-only, read-only cursor and are written to the
+     * response as they are read, so memory use does not grow with the table; gzip is applied by server.compression.
+     * The writers leave the response stream open: closing it ends the chunked body, which would make a dump cut short
+     * by a failure or the async timeout look complete.
+     */
+    @GetMapping(value = "export", params = "format=csv")
+    public ResponseEntity<StreamingResponseBody> exportEmployeesAsCsv() {
+        ObjectWriter csvWriter = EmployeeCsv.MAPPER.writerFor(Employee.class).with(EmployeeCsv.EXPORT_SCHEMA)
+                .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+
+        StreamingResponseBody body = outputStream -> {
+            try (SequenceWriter rows = csvWriter.writeValues(outputStream)) {
+                employeeService.forEachEmployee(employee -> {
+                    try {
+                        rows.write(employee);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            }
+        };
+        return export(TEXT_CSV, "employees.csv", body);
+    }
+
+    @GetMapping(value = "export", params = "format=ndjson")
+    public ResponseEntity<StreamingResponseBody> exportEmployeesAsNdjson() {
+        ObjectWriter employeeWriter = objectMapper.writerFor(Employee.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+
+        StreamingResponseBody body = outputStream -> {
+            try (JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream)
+                    .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET)) {
+                // every line ends with a newline instead of root values being separated by a space
+                generator.setRootValueSeparator(null);
+                employeeService.forEachEmployee(employee -> {
+                    try {
+                        employeeWriter.writeValue(generator, employee);
+                        generator.writeRaw('\n');
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            }
+        };
+        return export(MediaType.parseMediaType(APPLICATION_NDJSON_VALUE), "employees.ndjson", body);
+    }
+
+    @GetMapping("search")
+    public Slice<EmployeeSummary> searchEmployees(@RequestParam("lastName") String lastName,
+                                                  @RequestParam(value = "firstName", required = false) String firstName,
+                                                  @RequestParam(value = "page", defaultValue = "0") int page,
+                                                  @RequestParam(value = "size", defaultValue = "20") int size) {
+        return employeeService.searchEmployees(lastName, firstName, page, size);
+    }
+
+    @GetMapping("suggest")
+    public List<EmployeeSummary> suggestEmployees(@RequestParam("q") String query,
+                                                  @RequestParam(value = "limit", defaultValue = "10") int limit) {
+        return employeeService.suggestEmployees(query, limit);
+    }
+
+    /**
+     * A request carrying If-None-Match is first checked against the version alone; the employee is only loaded
+     * and serialized when it has changed.
+     */
     @GetMapping("{id}/")
-    public ResponseEntity<Employee> getEmployeeById(@PathVariable("id") long employeeId) {
+    public ResponseEntity<Employee> getEmployeeById(@PathVariable("id") long employeeId,
+                                                    @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        if (ifNoneMatch != null) {
+            Optional<EmployeeVersion> version = employeeService.getEmployeeVersion(employeeId);
+            if (version.isEmpty()) {
+                return ResponseEntity.notFound().build();
+            }
+            if (eTagMatches(ifNoneMatch, eTag(version.get().version()))) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                        .eTag(eTag(version.get().version()))
+                        .lastModified(version.get().updatedAt())
+                        .build();
+            }
+        }
         return employeeService.getEmployeeById(employeeId)
-                .map(ResponseEntity::ok)
+                .map(employee -> withValidators(ResponseEntity.ok(), employee).body(employee))
                 .orElseGet(() -> ResponseEntity.notFound().build());
     }
 
     @PutMapping("{id}/")
-    public ResponseEntity<Employee> updateEmployee(@PathVariable("id") long employeeId, @RequestBody Employee employee) {
+    public ResponseEntity<Employee> updateEmployee(@PathVariable("id") long employeeId, @RequestBody Employee employee,
+                                                   @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
         return employeeService.getEmployeeById(employeeId).map(savedEmployee -> {
-            savedEmployee.setFirstName(employee.getFirstName());
-            savedEmployee.setLastName(employee.getLastName());
-            savedEmployee.setEmail(employee.getEmail());
+            if (ifMatch != null && !isAnyTag(ifMatch) && !Objects.equals(savedEmployee.getVersion(), versionOf(ifMatch))) {
+                return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).<Employee>build();
+            }
+            // savedEmployee may be the cached instance shared with other readers, so it is never mutated
+            Employee employeeToUpdate = Employee.builder()
+                    .id(savedEmployee.getId())
+                    .firstName(employee.getFirstName())
+                    .lastName(employee.getLastName())
+                    .email(employee.getEmail())
+                    .version(savedEmployee.getVersion())
+                    .build();
 
-            Employee updatedEmployee = employeeService.updateEmployee(savedEmployee);
-            return new ResponseEntity<>(updatedEmployee, HttpStatus.OK);
+            try {
+                Employee updatedEmployee = employeeService.updateEmployee(employeeToUpdate);
+                return withValidators(ResponseEntity.ok(), updatedEmployee).body(updatedEmployee);
+            } catch (StaleVersionException e) {
+                if (ifMatch != null) {
+                    return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).<Employee>build();
+                }
+                throw e;
+            }
         }).orElseGet(() -> ResponseEntity.notFound().build());
     }
 
+    /**
+     * If-Match is turned into the expected version of the update, so it is checked by the same statement that
+     * writes the changes.
+     */
+    @PatchMapping("{id}/")
+    public ResponseEntity<Void> patchEmployee(@PathVariable("id") long employeeId, @RequestBody Employee changes,
+                                              @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        if (ifMatch != null && !isAnyTag(ifMatch)) {
+            Long expectedVersion = versionOf(ifMatch);
+            if (expectedVersion == null) {
+                return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).build();
+            }
+            changes.setVersion(expectedVersion);
+        }
+        try {
+            if (employeeService.patchEmployee(employeeId, changes)) {
+                return ResponseEntity.noContent().build();
+            }
+        } catch (StaleVersionException e) {
+            if (ifMatch != null) {
+                return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).build();
+            }
+            throw e;
+        }
+        return ResponseEntity.notFound().build();
+    }
+
     @DeleteMapping("{id}/")
     public ResponseEntity<String> deleteEmployee(@PathVariable("id") long employeeId) {
-        employeeService.deleteEmployee(employeeId);
+        if (!employeeService.deleteEmployee(employeeId)) {
+            return ResponseEntity.notFound().build();
+        }
 
         return new ResponseEntity<String>("Employee deleted successfully!.", HttpStatus.OK);
     }
+
+    @DeleteMapping(params = "ids")
+    public Map<String, Integer> deleteEmployees(@RequestParam("ids") List<Long> employeeIds) {
+        return Map.of("deleted", employeeService.deleteEmployees(employeeIds));
+    }
+
+    private static ResponseEntity<StreamingResponseBody> export(MediaType mediaType, String filename, StreamingResponseBody body) {
+        return ResponseEntity.ok()
+                .contentType(mediaType)
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment().filename(filename).build().toString())
+                .body(body);
+    }
+
+    private static String eTag(long version) {
+        return "\"" + version + "\"";
+    }
+
+    private static ResponseEntity.BodyBuilder withValidators(ResponseEntity.BodyBuilder response, Employee employee) {
+        if (employee.getVersion() != null) {
+            response.eTag(eTag(employee.getVersion()));
+        }
+        if (employee.getUpdatedAt() != null) {
+            response.lastModified(employee.getUpdatedAt());
+        }
+        return response;
+    }
+
+    private static String collectionETag(EmployeeCollectionVersion collectionVersion) {
+        return "W/\"" + collectionVersion.lastChangeSeq() + "\"";
+    }
+
+    /** Weak comparison, as If-None-Match requires. */
+    private static boolean eTagMatches(String header, String eTag) {
+        if (header == null) {
+            return false;
+        }
+        String opaqueTag = eTag.startsWith("W/") ? eTag.substring(2) : eTag;
+        return Arrays.stream(header.split(","))
+                .map(String::trim)
+                .anyMatch(candidate -> candidate.equals("*")
+                        || (candidate.startsWith("W/") ? candidate.substring(2) : candidate).equals(opaqueTag));
+    }
+
+    private static boolean isAnyTag(String ifMatch) {
+        return ifMatch.trim().equals("*");
+    }
+
+    /** The version in a strong per-employee tag, or null for anything else; If-Match needs a strong match. */
+    private static Long versionOf(String ifMatch) {
+        String tag = ifMatch.trim();
+        if (tag.length() < 3 || !tag.startsWith("\"") || !tag.endsWith("\"")) {
+            return null;
+        }
+        try {
+            return Long.parseLong(tag.substring(1, tag.length() - 1));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
 }
@@ -0,0 +1,38 @@
+package com.practice.springboottesting.controller;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.csv.CsvGenerator;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvSchema;
+
+/**
+ * CSV settings shared by export and import, so an exported file can be imported as it is.
+ */
+final class EmployeeCsv {
+
+    static final CsvMapper MAPPER = CsvMapper.builder()
+            .findAndAddModules()
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .disable(SerializationFeature.FLUSH_AFTER_WRITE_VALUE)
+            .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+            // only quote values that need it; by default every value longer than 24 characters is quoted
+            .enable(CsvGenerator.Feature.STRICT_CHECK_FOR_QUOTING)
+            .build();
+
+    static final CsvSchema EXPORT_SCHEMA = CsvSchema.builder()
+            .addColumn("id")
+            .addColumn("firstName")
+            .addColumn("lastName")
+            .addColumn("email")
+            .addColumn("version")
+            .addColumn("updatedAt")
+            .setUseHeader(true)
+            .build();
+
+    /** Columns are taken from the header line, in any order; unknown ones are ignored. */
+    static final CsvSchema IMPORT_SCHEMA = CsvSchema.emptySchema().withHeader();
+
+    private EmployeeCsv() {
+    }
+}
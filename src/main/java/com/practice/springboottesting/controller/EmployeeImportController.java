@@ -0,0 +1,59 @@
+package com.practice.springboottesting.controller;
+
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.practice.springboottesting.importer.EmployeeImporter;
+import com.practice.springboottesting.importer.ImportReport;
+import com.practice.springboottesting.model.Employee;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Bulk import of CSV (as written by the export) or NDJSON bodies of any size. The body is parsed as it arrives;
+ * rows that fail validation are reported instead of failing the import. When an import is cut short, the report
+ * says how many rows were processed, and sending the same body again with skip set to that number resumes it.
+ */
+@RestController
+@RequestMapping("/api/employees/")
+public class EmployeeImportController {
+
+    private EmployeeImporter importer;
+
+    private ObjectMapper objectMapper;
+
+    public EmployeeImportController(EmployeeImporter importer, ObjectMapper objectMapper) {
+        this.importer = importer;
+        this.objectMapper = objectMapper;
+    }
+
+    @PostMapping(value = "import", consumes = "text/csv")
+    public ResponseEntity<ImportReport> importCsv(InputStream body,
+                                                  @RequestParam(value = "skip", defaultValue = "0") long skip) throws IOException {
+        try (MappingIterator<Employee> rows = EmployeeCsv.MAPPER.readerFor(Employee.class)
+                .with(EmployeeCsv.IMPORT_SCHEMA)
+                .readValues(body)) {
+            return toResponse(importer.importEmployees(rows, skip));
+        }
+    }
+
+    @PostMapping(value = "import", consumes = EmployeeController.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<ImportReport> importNdjson(InputStream body,
+                                                     @RequestParam(value = "skip", defaultValue = "0") long skip) throws IOException {
+        try (MappingIterator<Employee> rows = objectMapper.readerFor(Employee.class).readValues(body)) {
+            return toResponse(importer.importEmployees(rows, skip));
+        }
+    }
+
+    private static ResponseEntity<ImportReport> toResponse(ImportReport report) {
+        HttpStatus status = switch (report.status()) {
+            case COMPLETED -> HttpStatus.OK;
+            case MALFORMED -> HttpStatus.BAD_REQUEST;
+            case FAILED -> HttpStatus.INTERNAL_SERVER_ERROR;
+        };
+        return ResponseEntity.status(status).body(report);
+    }
+}
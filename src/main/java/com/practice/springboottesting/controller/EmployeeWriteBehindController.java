@@ -0,0 +1,51 @@
+package com.practice.springboottesting.controller;
+
+import com.practice.springboottesting.model.Employee;
+import com.practice.springboottesting.writebehind.EmployeeWriteBehindQueue;
+import com.practice.springboottesting.writebehind.WriteStatus;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.net.URI;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Creates sent with "Prefer: respond-async" are queued and answered with 202 plus a tracking id; the status
+ * endpoint then reports whether the employee was created or rejected. Without the header, or with the mode
+ * disabled, POST stays synchronous.
+ */
+@RestController
+@RequestMapping("/api/employees/")
+@ConditionalOnProperty(name = "employees.write-behind.enabled", havingValue = "true")
+public class EmployeeWriteBehindController {
+    public static final String PREFER_ASYNC = "respond-async";
+
+    private EmployeeWriteBehindQueue writeBehindQueue;
+
+    public EmployeeWriteBehindController(EmployeeWriteBehindQueue writeBehindQueue) {
+        this.writeBehindQueue = writeBehindQueue;
+    }
+
+    @PostMapping(headers = "Prefer=" + PREFER_ASYNC)
+    public ResponseEntity<Map<String, UUID>> createEmployeeAsync(@RequestBody Employee employee) {
+        return writeBehindQueue.submit(employee)
+                .map(trackingId -> ResponseEntity.accepted()
+                        .location(URI.create("/api/employees/requests/" + trackingId + "/"))
+                        .header("Preference-Applied", PREFER_ASYNC)
+                        .body(Map.of("trackingId", trackingId)))
+                .orElseGet(() -> ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                        .header(HttpHeaders.RETRY_AFTER, "1")
+                        .build());
+    }
+
+    @GetMapping("requests/{trackingId}/")
+    public ResponseEntity<WriteStatus> getWriteStatus(@PathVariable("trackingId") UUID trackingId) {
+        return writeBehindQueue.getStatus(trackingId)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+}
@@ -0,0 +1,176 @@
+package com.practice.springboottesting.event;
+
+import com.practice.springboottesting.model.EmployeeChange;
+import com.practice.springboottesting.repository.EmployeeChangeRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Streams the employee_changes outbox to Server-Sent Events subscribers. A single poller reads new changes once
+ * per distinct subscriber position, so any number of subscribers that have caught up cost one query per tick.
+ * Each event carries its seq as the SSE id, which lets clients resume with Last-Event-ID.
+ *
+ * <p>Identity values are handed out at insert time, not at commit, so a lower seq can become visible after a
+ * higher one. Changes are therefore only streamed once they are older than employees.changes.settle-delay; change
+ * rows are the last statement of their transaction, which keeps that window short. Both the recording time and
+ * the cutoff come from the database clock, and changes are read from the primary, so neither clock skew between
+ * instances nor replica lag moves the cutoff. A transaction that takes longer than the settle delay to commit
+ * after writing its change row can still be skipped by subscribers that have moved past its seq.
+ *
+ * <p>Subscribers hold no connection while they wait, so the request limits of virtual-thread mode
+ * ({@link com.practice.springboottesting.filter.ConnectionPermitFilter}) leave them out.
+ */
+@Component
+public class EmployeeChangeFeed implements SmartLifecycle {
+    private static final Logger log = LoggerFactory.getLogger(EmployeeChangeFeed.class);
+
+    private static final Duration HEARTBEAT_INTERVAL = Duration.ofSeconds(15);
+
+    private static final Duration PURGE_INTERVAL = Duration.ofHours(1);
+
+    private final EmployeeChangeRepository changeRepository;
+
+    private final Duration pollInterval;
+
+    private final Duration settleDelay;
+
+    private final Duration retention;
+
+    private final Duration timeout;
+
+    private final int batchSize;
+
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+
+    private volatile ScheduledExecutorService poller;
+
+    private Instant nextPurge = Instant.now();
+
+    public EmployeeChangeFeed(EmployeeChangeRepository changeRepository,
+                              @Value("${employees.changes.poll-interval:500ms}") Duration pollInterval,
+                              @Value("${employees.changes.settle-delay:1s}") Duration settleDelay,
+                              @Value("${employees.changes.retention:7d}") Duration retention,
+                              @Value("${employees.changes.timeout:30m}") Duration timeout,
+                              @Value("${employees.changes.batch-size:500}") int batchSize) {
+        this.changeRepository = changeRepository;
+        this.pollInterval = pollInterval;
+        this.settleDelay = settleDelay;
+        this.retention = retention;
+        this.timeout = timeout;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * @param since the last seq the client has seen; 0 replays every retained change
+     */
+    public SseEmitter subscribe(long since) {
+        SseEmitter emitter = new SseEmitter(timeout.toMillis());
+        Subscriber subscriber = new Subscriber(emitter, since);
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onError(error -> subscribers.remove(subscriber));
+        subscribers.add(subscriber);
+        return emitter;
+    }
+
+    @Override
+    public void start() {
+        poller = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "employee-change-feed");
+            thread.setDaemon(true);
+            return thread;
+        });
+        poller.scheduleWithFixedDelay(this::pollSafely, pollInterval.toMillis(), pollInterval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void stop() {
+        poller.shutdownNow();
+        poller = null;
+        // clients reconnect with Last-Event-ID, possibly to another instance
+        subscribers.forEach(subscriber -> subscriber.emitter.complete());
+        subscribers.clear();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return poller != null;
+    }
+
+    private void pollSafely() {
+        try {
+            poll(Instant.now());
+        } catch (RuntimeException e) {
+            // an exception would cancel the schedule, so one failed query must not end the feed
+            log.warn("Could not poll employee changes", e);
+        }
+    }
+
+    void poll(Instant now) {
+        Map<Long, List<Subscriber>> subscribersBySeq = subscribers.stream()
+                .collect(Collectors.groupingBy(subscriber -> subscriber.seq));
+        subscribersBySeq.forEach((seq, group) -> {
+            List<EmployeeChange> changes = changeRepository.findSettledAfter(seq, settleDelay.toNanos(), PageRequest.ofSize(batchSize));
+            group.forEach(subscriber -> send(subscriber, changes, now));
+        });
+
+        if (!now.isBefore(nextPurge)) {
+            nextPurge = now.plus(PURGE_INTERVAL);
+            int purged = changeRepository.deleteRecordedBefore(now.minus(retention));
+            if (purged > 0) {
+                log.info("Purged {} employee changes older than {}", purged, retention);
+            }
+        }
+    }
+
+    private void send(Subscriber subscriber, List<EmployeeChange> changes, Instant now) {
+        try {
+            for (EmployeeChange change : changes) {
+                subscriber.emitter.send(SseEmitter.event()
+                        .id(String.valueOf(change.getSeq()))
+                        .name(change.getType().name().toLowerCase())
+                        .data(change.getPayload()));
+                subscriber.seq = change.getSeq();
+                subscriber.lastSent = now;
+            }
+            if (subscriber.lastSent.plus(HEARTBEAT_INTERVAL).isBefore(now)) {
+                // keeps idle connections from being closed by proxies, and detects clients that went away
+                subscriber.emitter.send(SseEmitter.event().comment("keep-alive"));
+                subscriber.lastSent = now;
+            }
+        } catch (IOException | IllegalStateException e) {
+            // the container reports the failure to the emitter as well; it only has to stop receiving here
+            subscribers.remove(subscriber);
+        }
+    }
+
+    /** Only touched by the poller thread once subscribed. */
+    private static final class Subscriber {
+        private final SseEmitter emitter;
+
+        private long seq;
+
+        private Instant lastSent = Instant.now();
+
+        private Subscriber(SseEmitter emitter, long seq) {
+            this.emitter = emitter;
+            this.seq = seq;
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.practice.springboottesting.event;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.practice.springboottesting.model.EmployeeChange;
+import com.practice.springboottesting.repository.EmployeeChangeRepository;
+import com.practice.springboottesting.repository.EmployeeRepository;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Writes every employee event to the employee_changes outbox. Unlike the other listeners this one runs inside
+ * the publishing transaction, so a change row commits or rolls back together with the write it describes.
+ */
+@Component
+public class EmployeeChangeRecorder {
+
+    private EmployeeRepository employeeRepository;
+
+    private EmployeeChangeRepository changeRepository;
+
+    private ObjectMapper objectMapper;
+
+    public EmployeeChangeRecorder(EmployeeRepository employeeRepository, EmployeeChangeRepository changeRepository,
+                                  ObjectMapper objectMapper) {
+        this.employeeRepository = employeeRepository;
+        this.changeRepository = changeRepository;
+        this.objectMapper = objectMapper;
+    }
+
+    @EventListener
+    public void onSaved(EmployeeEvent.Saved event) {
+        // pending batch inserts are written first, so the payload carries their generated timestamps
+        changeRepository.flush();
+        // @Version starts new rows at 0
+        boolean created = event.employees().stream().allMatch(employee -> Long.valueOf(0).equals(employee.getVersion()));
+        record(created ? EmployeeChange.Type.CREATED : EmployeeChange.Type.UPDATED, event.employees());
+    }
+
+    @EventListener
+    public void onPatched(EmployeeEvent.Patched event) {
+        employeeRepository.findById(event.id())
+                .ifPresent(employee -> record(EmployeeChange.Type.UPDATED, List.of(employee)));
+    }
+
+    @EventListener
+    public void onDeleted(EmployeeEvent.Deleted event) {
+        record(EmployeeChange.Type.DELETED, event.ids());
+    }
+
+    private void record(EmployeeChange.Type type, Collection<?> payload) {
+        String json;
+        try {
+            json = objectMapper.writeValueAsString(payload);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize " + type + " change", e);
+        }
+        changeRepository.save(EmployeeChange.builder().type(type).payload(json).build());
+    }
+}
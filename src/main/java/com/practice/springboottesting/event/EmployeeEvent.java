@@ -0,0 +1,23 @@
+package com.practice.springboottesting.event;
+
+import com.practice.springboottesting.model.Employee;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Published by the employee service after every successful write. Listeners that keep derived state (indexes,
+ * caches, feeds) should use @TransactionalEventListener so they only see committed changes.
+ */
+public sealed interface EmployeeEvent {
+
+    record Saved(List<Employee> employees) implements EmployeeEvent {
+    }
+
+    /** A partial update; only the id is known, listeners reload the row if they need it. */
+    record Patched(long id) implements EmployeeEvent {
+    }
+
+    record Deleted(Collection<Long> ids) implements EmployeeEvent {
+    }
+}
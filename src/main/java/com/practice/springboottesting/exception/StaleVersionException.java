@@ -0,0 +1,15 @@
+package com.practice.springboottesting.exception;
+
+/**
+ * The write was based on a version of the employee that is no longer current.
+ */
+public class StaleVersionException extends ResourceConflictException {
+
+    public StaleVersionException(String message) {
+        super(message);
+    }
+
+    public StaleVersionException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,98 @@
+package com.practice.springboottesting.filter;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.async.CallableProcessingInterceptor;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Caps the number of requests in flight to the size of the connection pool. With virtual threads nothing else
+ * bounds concurrency, so without it thousands of requests would queue inside Hikari and time out together.
+ * Requests that cannot get a permit within the timeout are answered with 503.
+ *
+ * <p>A permit covers only the time a thread works on the request. One that goes async returns it when its thread
+ * does, since an open async request holds no connection by itself; work that then runs on another thread, such as
+ * a streaming download, takes a permit again through {@link #asyncInterceptor()}.
+ */
+public class ConnectionPermitFilter extends OncePerRequestFilter {
+
+    private final Semaphore permits;
+
+    private final long acquireTimeoutNanos;
+
+    public ConnectionPermitFilter(int permits, Duration acquireTimeout) {
+        this.permits = new Semaphore(permits, true);
+        this.acquireTimeoutNanos = acquireTimeout.toNanos();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        if (!acquirePermit()) {
+            response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+            response.sendError(HttpStatus.SERVICE_UNAVAILABLE.value(), "Too many concurrent requests");
+            return;
+        }
+
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            permits.release();
+        }
+    }
+
+    /**
+     * Change feed subscriptions are served by the shared poller and never use a connection of their own, so they
+     * neither wait for a permit nor count against the limit, however long they stay open.
+     */
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return EndpointClass.of(request) == EndpointClass.STREAM;
+    }
+
+    /**
+     * Holds a permit while async MVC work runs on its own thread. When none frees up within the timeout the
+     * request is answered with 503, as on the way in.
+     */
+    public CallableProcessingInterceptor asyncInterceptor() {
+        return new CallableProcessingInterceptor() {
+            @Override
+            public <T> void preProcess(NativeWebRequest request, Callable<T> task) {
+                if (!acquirePermit()) {
+                    throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Too many concurrent requests");
+                }
+            }
+
+            @Override
+            public <T> void postProcess(NativeWebRequest request, Callable<T> task, Object concurrentResult) {
+                // only called when preProcess returned normally, so a permit was taken
+                permits.release();
+            }
+        };
+    }
+
+    int availablePermits() {
+        return permits.availablePermits();
+    }
+
+    private boolean acquirePermit() {
+        try {
+            return permits.tryAcquire(acquireTimeoutNanos, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.practice.springboottesting.filter;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+/**
+ * Groups API requests by what they cost the database, so rate limits and concurrency limits can treat a full
+ * table scan differently from a lookup by id.
+ */
+public enum EndpointClass {
+    /** Single rows, lookups of up to a thousand ids, pages and searches. */
+    STANDARD(1),
+    /** Reads every row, or enough to cost as much: the unpaged list, stream=true, export and large lookups. */
+    FULL_SCAN(10),
+    /** Writes or deletes many rows: batch, import and delete by ids. */
+    BULK(10),
+    /** Change feed subscriptions; they share one poller and hold no connection. */
+    STREAM(1);
+
+    /** Lookups by more ids than this read as many rows as a small table scan. */
+    static final int LARGE_LOOKUP_IDS = 1000;
+
+    /**
+     * POST lookup bodies are not read here; a body longer than this holds about a thousand ids of up to seven
+     * digits, and no fewer than half as many ids can fill it. Bodies of unknown length count as large.
+     */
+    static final long LARGE_LOOKUP_BYTES = 8 * 1024;
+
+    private final int cost;
+
+    EndpointClass(int cost) {
+        this.cost = cost;
+    }
+
+    /** Tokens taken from the client's rate limit bucket. */
+    public int cost() {
+        return cost;
+    }
+
+    public static EndpointClass of(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        switch (request.getMethod()) {
+            case "GET":
+                if (path.endsWith("/changes")) {
+                    return STREAM;
+                }
+                if (path.endsWith("/export") || (path.equals("/api/employees/")
+                        && request.getParameter("limit") == null && request.getParameter("ids") == null)) {
+                    return FULL_SCAN;
+                }
+                return countIds(request) > LARGE_LOOKUP_IDS ? FULL_SCAN : STANDARD;
+            case "POST":
+                if (path.endsWith("/lookup")) {
+                    long length = request.getContentLengthLong();
+                    return length < 0 || length > LARGE_LOOKUP_BYTES ? FULL_SCAN : STANDARD;
+                }
+                return path.endsWith("/import") || path.endsWith("/batch") ? BULK : STANDARD;
+            case "DELETE":
+                return request.getParameter("ids") != null ? BULK : STANDARD;
+            default:
+                return STANDARD;
+        }
+    }
+
+    private static int countIds(HttpServletRequest request) {
+        String[] values = request.getParameterValues("ids");
+        if (values == null) {
+            return 0;
+        }
+        int ids = 0;
+        for (String value : values) {
+            ids += value.split(",").length;
+        }
+        return ids;
+    }
+}
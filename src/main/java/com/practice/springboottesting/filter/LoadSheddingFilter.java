@@ -0,0 +1,138 @@
+package com.practice.springboottesting.filter;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Bounds how many requests of each {@link EndpointClass} run at once. A request that finds its class busy waits up
+ * to the queue timeout, but once maxQueued requests are already waiting it is answered with 503 straight away:
+ * a fast rejection the client can retry beats a queue whose latency keeps growing. Classes without a limit pass.
+ */
+public class LoadSheddingFilter extends OncePerRequestFilter {
+
+    public record Limit(int maxConcurrent, int maxQueued) {
+    }
+
+    private final Map<EndpointClass, Bulkhead> bulkheads = new EnumMap<>(EndpointClass.class);
+
+    private final long queueTimeoutNanos;
+
+    public LoadSheddingFilter(Map<EndpointClass, Limit> limits, Duration queueTimeout, MeterRegistry meterRegistry) {
+        limits.forEach((endpoint, limit) -> bulkheads.put(endpoint, new Bulkhead(limit, Counter.builder("employee.api.rejected")
+                .tag("reason", "shed")
+                .tag("endpoint", endpoint.name().toLowerCase())
+                .register(meterRegistry))));
+        this.queueTimeoutNanos = queueTimeout.toNanos();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        Bulkhead bulkhead = bulkheads.get(EndpointClass.of(request));
+        if (bulkhead == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        if (!bulkhead.tryAcquire(queueTimeoutNanos)) {
+            bulkhead.rejections.increment();
+            response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+            response.sendError(HttpStatus.SERVICE_UNAVAILABLE.value(), "Server busy");
+            return;
+        }
+
+        boolean releaseOnReturn = true;
+        try {
+            filterChain.doFilter(request, response);
+            if (request.isAsyncStarted()) {
+                // streaming responses keep reading rows after this thread returns
+                request.getAsyncContext().addListener(new ReleaseListener(bulkhead));
+                releaseOnReturn = false;
+            }
+        } finally {
+            if (releaseOnReturn) {
+                bulkhead.permits.release();
+            }
+        }
+    }
+
+    int availablePermits(EndpointClass endpoint) {
+        return bulkheads.get(endpoint).permits.availablePermits();
+    }
+
+    private static final class Bulkhead {
+        private final Semaphore permits;
+
+        private final int maxQueued;
+
+        private final AtomicInteger queued = new AtomicInteger();
+
+        private final Counter rejections;
+
+        private Bulkhead(Limit limit, Counter rejections) {
+            this.permits = new Semaphore(limit.maxConcurrent());
+            this.maxQueued = limit.maxQueued();
+            this.rejections = rejections;
+        }
+
+        private boolean tryAcquire(long timeoutNanos) {
+            if (permits.tryAcquire()) {
+                return true;
+            }
+            if (queued.incrementAndGet() > maxQueued) {
+                queued.decrementAndGet();
+                return false;
+            }
+            try {
+                return permits.tryAcquire(timeoutNanos, TimeUnit.NANOSECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            } finally {
+                queued.decrementAndGet();
+            }
+        }
+    }
+
+    private static final class ReleaseListener implements AsyncListener {
+        private final Bulkhead bulkhead;
+
+        private ReleaseListener(Bulkhead bulkhead) {
+            this.bulkhead = bulkhead;
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            // also fired after onError and onTimeout, so this is the single release point
+            bulkhead.permits.release();
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+        }
+    }
+}
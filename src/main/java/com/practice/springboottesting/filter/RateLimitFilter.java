@@ -0,0 +1,128 @@
+package com.practice.springboottesting.filter;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.util.StringUtils;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+
+/**
+ * Per-client token bucket, answering 429 once a client has used up its burst. Each request takes
+ * {@link EndpointClass#cost()} tokens, so full scans drain a bucket ten times faster than lookups.
+ *
+ * <p>The bucket is kept as a single timestamp, the time at which it will be full again (GCRA), and updated with
+ * compare-and-set, so clients never wait on a lock. Buckets live in a size-bounded cache; an idle client's bucket
+ * refills completely before it expires, so evicting it loses nothing.
+ *
+ * <p>Clients are told apart by {@link #remoteAddress()} unless another key is plugged in. Behind a proxy the remote
+ * address is the proxy's own, so either let the container resolve forwarded headers from trusted proxies or key the
+ * buckets by a header the gateway sets, see {@link #header(String)}.
+ */
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private static final int MAX_CLIENTS = 100_000;
+
+    private final long nanosPerToken;
+
+    private final long burstNanos;
+
+    private final Function<HttpServletRequest, String> clientKey;
+
+    private final LongSupplier nanoClock;
+
+    private final Cache<String, AtomicLong> buckets;
+
+    private final Map<EndpointClass, Counter> rejections = new EnumMap<>(EndpointClass.class);
+
+    public RateLimitFilter(double tokensPerSecond, int burst, Function<HttpServletRequest, String> clientKey,
+                           MeterRegistry meterRegistry) {
+        this(tokensPerSecond, burst, clientKey, meterRegistry, System::nanoTime);
+    }
+
+    RateLimitFilter(double tokensPerSecond, int burst, Function<HttpServletRequest, String> clientKey,
+                    MeterRegistry meterRegistry, LongSupplier nanoClock) {
+        this.nanosPerToken = (long) (TimeUnit.SECONDS.toNanos(1) / tokensPerSecond);
+        this.burstNanos = burst * nanosPerToken;
+        this.clientKey = clientKey;
+        this.nanoClock = nanoClock;
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(MAX_CLIENTS)
+                .expireAfterAccess(Duration.ofNanos(Math.max(burstNanos, TimeUnit.SECONDS.toNanos(1))))
+                .build();
+        for (EndpointClass endpoint : EndpointClass.values()) {
+            rejections.put(endpoint, Counter.builder("employee.api.rejected")
+                    .tag("reason", "rate_limited")
+                    .tag("endpoint", endpoint.name().toLowerCase())
+                    .register(meterRegistry));
+        }
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        EndpointClass endpoint = EndpointClass.of(request);
+        long waitNanos = tryConsume(clientKey.apply(request), endpoint.cost());
+        if (waitNanos > 0) {
+            rejections.get(endpoint).increment();
+            long retryAfterSeconds = (waitNanos + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1);
+            response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+            response.sendError(HttpStatus.TOO_MANY_REQUESTS.value(), "Rate limit exceeded");
+            return;
+        }
+        filterChain.doFilter(request, response);
+    }
+
+    /**
+     * Keys clients by the address the container reports, which is only the real client address when the proxies in
+     * front resolve to it through {@code server.forward-headers-strategy}.
+     */
+    public static Function<HttpServletRequest, String> remoteAddress() {
+        return HttpServletRequest::getRemoteAddr;
+    }
+
+    /**
+     * Keys clients by a header, such as an API key or a client id set by the gateway, falling back to the remote
+     * address for requests without it. Only use a header that clients cannot set themselves.
+     */
+    public static Function<HttpServletRequest, String> header(String name) {
+        return request -> {
+            String value = request.getHeader(name);
+            return StringUtils.hasText(value) ? name + ':' + value : request.getRemoteAddr();
+        };
+    }
+
+    /**
+     * @return 0 when the tokens were taken, otherwise how long the client has to wait for them
+     */
+    long tryConsume(String client, int tokens) {
+        long now = nanoClock.getAsLong();
+        AtomicLong fullAt = buckets.get(client, key -> new AtomicLong(now));
+        while (true) {
+            long current = fullAt.get();
+            long next = Math.max(current, now) + tokens * nanosPerToken;
+            long waitNanos = next - now - burstNanos;
+            if (waitNanos > 0) {
+                return waitNanos;
+            }
+            if (fullAt.compareAndSet(current, next)) {
+                return 0;
+            }
+        }
+    }
+}
@@ -0,0 +1,253 @@
+package com.practice.springboottesting.importer;
+
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.practice.springboottesting.exception.ResourceConflictException;
+import com.practice.springboottesting.model.Employee;
+import com.practice.springboottesting.service.EmployeeService;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Imports employees from a parsed body of any size. Rows are read in chunks; up to employees.import.parallelism
+ * chunks are validated at once (required fields, duplicates within the chunk, emails already stored), while a
+ * single writer inserts validated chunks in file order through {@link EmployeeService#insertAll(List)}, one
+ * transaction per chunk. Only the chunks in flight are held in memory.
+ *
+ * <p>A chunk is validated before the chunks just ahead of it are written, so the writer also checks it against
+ * the emails of those chunks; older chunks are already visible to the database lookup.
+ */
+@Component
+public class EmployeeImporter {
+    private static final Logger log = LoggerFactory.getLogger(EmployeeImporter.class);
+
+    /** A multiple of EmployeeServiceImpl.BATCH_SIZE, so every chunk is written as full JDBC batches. */
+    static final int CHUNK_SIZE = 1000;
+
+    static final int MAX_REPORTED_ERRORS = 100;
+
+    private static final int MAX_FIELD_LENGTH = 255;
+
+    private final EmployeeService employeeService;
+
+    private final int parallelism;
+
+    private final ExecutorService validators;
+
+    public EmployeeImporter(EmployeeService employeeService,
+                            @Value("${employees.import.parallelism:4}") int parallelism) {
+        this.employeeService = employeeService;
+        this.parallelism = parallelism;
+        AtomicInteger threadCount = new AtomicInteger();
+        this.validators = Executors.newFixedThreadPool(parallelism, runnable -> {
+            Thread thread = new Thread(runnable, "employee-import-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        validators.shutdownNow();
+    }
+
+    /**
+     * @param skip number of leading data rows that an earlier FAILED or MALFORMED import already processed
+     */
+    public ImportReport importEmployees(MappingIterator<Employee> rows, long skip) {
+        Progress progress = new Progress(skip);
+        Deque<CompletableFuture<ValidatedChunk>> inFlight = new ArrayDeque<>();
+        Deque<Set<String>> recentEmails = new ArrayDeque<>();
+        try {
+            List<Employee> chunk = new ArrayList<>(CHUNK_SIZE);
+            long rowNumber = 0;
+            long firstRow = skip + 1;
+            String malformed = null;
+            try {
+                for (; rowNumber < skip && rows.hasNextValue(); rowNumber++) {
+                    rows.nextValue();
+                }
+                while (rows.hasNextValue()) {
+                    chunk.add(rows.nextValue());
+                    rowNumber++;
+                    if (chunk.size() == CHUNK_SIZE) {
+                        inFlight.add(validateAsync(firstRow, chunk));
+                        chunk = new ArrayList<>(CHUNK_SIZE);
+                        firstRow = rowNumber + 1;
+                        if (inFlight.size() >= parallelism) {
+                            write(inFlight.remove().join(), recentEmails, progress);
+                        }
+                    }
+                }
+            } catch (IOException e) {
+                // the rows before the unreadable one are still imported, so a fixed body can be resumed after them
+                malformed = "Could not read row " + (rowNumber + 1) + ": " + e.getMessage();
+            }
+            if (!chunk.isEmpty()) {
+                inFlight.add(validateAsync(firstRow, chunk));
+            }
+            while (!inFlight.isEmpty()) {
+                write(inFlight.remove().join(), recentEmails, progress);
+            }
+            return malformed == null
+                    ? progress.report(ImportReport.Status.COMPLETED, null)
+                    : progress.report(ImportReport.Status.MALFORMED, malformed);
+        } catch (RuntimeException e) {
+            inFlight.forEach(pending -> pending.cancel(true));
+            Throwable cause = e instanceof CompletionException ? e.getCause() : e;
+            log.error("Import stopped after {} rows", progress.processedRows, cause);
+            return progress.report(ImportReport.Status.FAILED, cause.getMessage());
+        }
+    }
+
+    private CompletableFuture<ValidatedChunk> validateAsync(long firstRow, List<Employee> chunk) {
+        return CompletableFuture.supplyAsync(() -> validate(firstRow, chunk), validators);
+    }
+
+    private ValidatedChunk validate(long firstRow, List<Employee> chunk) {
+        List<Employee> valid = new ArrayList<>(chunk.size());
+        List<Long> validRows = new ArrayList<>(chunk.size());
+        List<ImportReport.RowError> errors = new ArrayList<>();
+        Set<String> emails = new HashSet<>();
+        for (int i = 0; i < chunk.size(); i++) {
+            Employee employee = chunk.get(i);
+            long row = firstRow + i;
+            String problem = problemWith(employee);
+            if (problem == null && !emails.add(employee.getEmail())) {
+                problem = "Duplicate email in file";
+            }
+            if (problem != null) {
+                errors.add(new ImportReport.RowError(row, employee.getEmail(), problem));
+                continue;
+            }
+            // ids, versions and timestamps of exported files are not carried over
+            resetForInsert(employee);
+            valid.add(employee);
+            validRows.add(row);
+        }
+
+        Set<String> existingEmails = valid.isEmpty() ? Set.of() : employeeService.findExistingEmails(emails);
+        if (!existingEmails.isEmpty()) {
+            for (int i = valid.size() - 1; i >= 0; i--) {
+                if (existingEmails.contains(valid.get(i).getEmail())) {
+                    errors.add(new ImportReport.RowError(validRows.get(i), valid.get(i).getEmail(), "Employee already exist"));
+                    valid.remove(i);
+                    validRows.remove(i);
+                }
+            }
+        }
+        return new ValidatedChunk(chunk.size(), valid, validRows, errors);
+    }
+
+    private void write(ValidatedChunk chunk, Deque<Set<String>> recentEmails, Progress progress) {
+        List<Employee> employees = new ArrayList<>(chunk.valid().size());
+        List<Long> rows = new ArrayList<>(chunk.valid().size());
+        List<ImportReport.RowError> errors = new ArrayList<>(chunk.errors());
+        for (int i = 0; i < chunk.valid().size(); i++) {
+            Employee employee = chunk.valid().get(i);
+            if (recentEmails.stream().anyMatch(emails -> emails.contains(employee.getEmail()))) {
+                errors.add(new ImportReport.RowError(chunk.validRows().get(i), employee.getEmail(), "Duplicate email in file"));
+            } else {
+                employees.add(employee);
+                rows.add(chunk.validRows().get(i));
+            }
+        }
+
+        long created;
+        try {
+            created = employees.isEmpty() ? 0 : employeeService.insertAll(employees).size();
+        } catch (ResourceConflictException e) {
+            // written concurrently by someone else; the single-row path finds out which rows
+            created = 0;
+            for (int i = 0; i < employees.size(); i++) {
+                try {
+                    // the rolled back batch has already assigned ids and versions
+                    resetForInsert(employees.get(i));
+                    employeeService.save(employees.get(i));
+                    created++;
+                } catch (ResourceConflictException conflict) {
+                    errors.add(new ImportReport.RowError(rows.get(i), employees.get(i).getEmail(), "Employee already exist"));
+                }
+            }
+        }
+
+        Set<String> writtenEmails = new HashSet<>();
+        employees.forEach(employee -> writtenEmails.add(employee.getEmail()));
+        recentEmails.addLast(writtenEmails);
+        if (recentEmails.size() > parallelism) {
+            recentEmails.removeFirst();
+        }
+        progress.add(chunk.size(), created, errors);
+    }
+
+    private static String problemWith(Employee employee) {
+        if (isBlank(employee.getFirstName()) || isBlank(employee.getLastName()) || isBlank(employee.getEmail())) {
+            return "firstName, lastName and email are required";
+        }
+        if (employee.getFirstName().length() > MAX_FIELD_LENGTH || employee.getLastName().length() > MAX_FIELD_LENGTH
+                || employee.getEmail().length() > MAX_FIELD_LENGTH) {
+            return "Values are limited to " + MAX_FIELD_LENGTH + " characters";
+        }
+        if (employee.getEmail().indexOf('@') < 1) {
+            return "Invalid email";
+        }
+        return null;
+    }
+
+    private static void resetForInsert(Employee employee) {
+        employee.setId(0);
+        employee.setVersion(null);
+        employee.setUpdatedAt(null);
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.isBlank();
+    }
+
+    private record ValidatedChunk(int size, List<Employee> valid, List<Long> validRows, List<ImportReport.RowError> errors) {
+    }
+
+    /** Only touched by the thread running the import. */
+    private static final class Progress {
+        private long processedRows;
+
+        private long created;
+
+        private long rejected;
+
+        private final List<ImportReport.RowError> errors = new ArrayList<>();
+
+        private Progress(long skip) {
+            this.processedRows = skip;
+        }
+
+        private void add(int rows, long createdRows, List<ImportReport.RowError> rowErrors) {
+            processedRows += rows;
+            created += createdRows;
+            rejected += rowErrors.size();
+            rowErrors.stream()
+                    .sorted((first, second) -> Long.compare(first.row(), second.row()))
+                    .limit(MAX_REPORTED_ERRORS - errors.size())
+                    .forEach(errors::add);
+        }
+
+        private ImportReport report(ImportReport.Status status, String message) {
+            return new ImportReport(status, processedRows, created, rejected, List.copyOf(errors), message);
+        }
+    }
+}
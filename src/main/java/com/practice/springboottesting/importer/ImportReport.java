@@ -0,0 +1,26 @@
+package com.practice.springboottesting.importer;
+
+import java.util.List;
+
+/**
+ * Outcome of an import. processedRows counts data rows (skipped ones included) that are either written or
+ * rejected, so a client whose import ended FAILED, or MALFORMED once the bad data is fixed, can send the same
+ * file again with skip=processedRows.
+ * Only the first rejected rows are listed in errors; rejected has the full count.
+ */
+public record ImportReport(Status status, long processedRows, long created, long rejected,
+                           List<RowError> errors, String message) {
+
+    public enum Status {
+        /** Every row was either written or rejected. */
+        COMPLETED,
+        /** The body could not be parsed past processedRows. */
+        MALFORMED,
+        /** Writing stopped at processedRows for a reason unrelated to the rows themselves. */
+        FAILED
+    }
+
+    /** row is the 1-based position among data rows, not counting a CSV header. */
+    public record RowError(long row, String email, String reason) {
+    }
+}
@@ -2,6 +2,11 @@ package com.practice.springboottesting.model;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.DynamicUpdate;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.time.Instant;
 
 @Setter
 @Getter
@@ -9,10 +14,19 @@ import lombok.*;
 @NoArgsConstructor
 @Builder
 @Entity
-@Table(name = "employees")
+@DynamicUpdate
+@Table(name = "employees",
+        uniqueConstraints = @UniqueConstraint(name = Employee.EMAIL_CONSTRAINT, columnNames = "email"),
+        indexes = @Index(name = Employee.NAME_INDEX, columnList = "last_name, first_name"))
 public class Employee {
+    public static final String EMAIL_CONSTRAINT = "uk_employees_email";
+
+    /** Serves name searches, which always filter on last_name and optionally on first_name. */
+    public static final String NAME_INDEX = "idx_employees_last_name_first_name";
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "employees_seq")
+    @SequenceGenerator(name = "employees_seq", sequenceName = "employees_seq", allocationSize = 50)
     private long id;
 
     @Column(name="first_name", nullable = false)
@@ -23,4 +37,14 @@ public class Employee {
 
     @Column(name="email", nullable = false)
     private String email;
+
+    /** The default lets ddl-auto=update add the column to a populated table; V4 does the same for migrated databases. */
+    @Version
+    @ColumnDefault("0")
+    @Column(name="version", nullable = false)
+    private Long version;
+
+    @UpdateTimestamp
+    @Column(name="updated_at", nullable = false)
+    private Instant updatedAt;
 }
@@ -0,0 +1,44 @@
+package com.practice.springboottesting.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.ColumnDefault;
+
+import java.time.Instant;
+
+/**
+ * One committed write to employees, kept in an outbox table so consumers can follow changes by seq instead of
+ * re-reading the whole table. The payload is the JSON array of affected employees, or of ids for deletes.
+ */
+@Setter
+@Getter
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@Entity
+@Table(name = "employee_changes",
+        indexes = @Index(name = EmployeeChange.RECORDED_AT_INDEX, columnList = "recorded_at"))
+public class EmployeeChange {
+    /** Serves the retention purge; streaming reads go through the primary key. */
+    public static final String RECORDED_AT_INDEX = "idx_employee_changes_recorded_at";
+
+    public enum Type {
+        CREATED, UPDATED, DELETED
+    }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private long seq;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name="change_type", nullable = false, length = 16)
+    private Type type;
+
+    @Column(name="payload", nullable = false, columnDefinition = "text")
+    private String payload;
+
+    /** Set by the database, so every instance records and polls changes against the same clock. */
+    @ColumnDefault("current_timestamp")
+    @Column(name="recorded_at", nullable = false, insertable = false, updatable = false)
+    private Instant recordedAt;
+}
@@ -0,0 +1,12 @@
+package com.practice.springboottesting.model;
+
+/**
+ * Changes whenever the employees table does: every write records a row in employee_changes in the same
+ * transaction, so the highest seq moves with each committed change. It is 0 before the first change.
+ *
+ * <p>seq is handed out when the change row is inserted, not at commit. A write that commits after one with a
+ * higher seq leaves the tag unchanged until the next write; the retention purge always keeps the latest row, so
+ * the tag never goes back.
+ */
+public record EmployeeCollectionVersion(long lastChangeSeq) {
+}
@@ -0,0 +1,10 @@
+package com.practice.springboottesting.model;
+
+import java.util.List;
+
+/**
+ * Answer to a lookup by many ids: the employees found, in the order their ids were first requested, and the
+ * requested ids that do not exist.
+ */
+public record EmployeeLookup(List<Employee> employees, long[] missingIds) {
+}
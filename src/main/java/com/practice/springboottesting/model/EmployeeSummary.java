@@ -0,0 +1,12 @@
+package com.practice.springboottesting.model;
+
+/**
+ * Read-only view of an employee for list results. Queries returning it select only these columns, so rows are
+ * never turned into managed entities.
+ */
+public record EmployeeSummary(long id, String firstName, String lastName, String email) {
+
+    public static EmployeeSummary of(Employee employee) {
+        return new EmployeeSummary(employee.getId(), employee.getFirstName(), employee.getLastName(), employee.getEmail());
+    }
+}
@@ -0,0 +1,9 @@
+package com.practice.springboottesting.model;
+
+import java.time.Instant;
+
+/**
+ * Version and modification time of one employee, enough to answer conditional requests without loading it.
+ */
+public record EmployeeVersion(long version, Instant updatedAt) {
+}
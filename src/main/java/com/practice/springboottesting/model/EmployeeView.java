@@ -0,0 +1,10 @@
+package com.practice.springboottesting.model;
+
+import java.time.Instant;
+
+/**
+ * Read-only copy of every employee column for full listings; it serializes to the same JSON as {@link Employee}.
+ * Queries returning it read plain tuples, so no managed entity, entity entry or snapshot is created per row.
+ */
+public record EmployeeView(long id, String firstName, String lastName, String email, Long version, Instant updatedAt) {
+}
@@ -0,0 +1,26 @@
+package com.practice.springboottesting.reactive;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.data.r2dbc.config.EnableR2dbcAuditing;
+
+/**
+ * Non-blocking variant of the employee API: WebFlux on top of R2DBC, serving the same routes as the MVC
+ * application. Writes are recorded in the employee_changes outbox like the MVC application's, so both feed one
+ * change stream. It reads reactive.properties instead of application.properties.
+ */
+@SpringBootApplication(exclude = DataSourceAutoConfiguration.class)
+@EnableR2dbcAuditing
+public class ReactiveEmployeeApplication {
+
+    public static final String CONFIG_NAME = "reactive";
+
+    public static void main(String[] args) {
+        SpringApplication application = new SpringApplicationBuilder(ReactiveEmployeeApplication.class)
+                .properties("spring.config.name=" + CONFIG_NAME)
+                .build();
+        application.run(args);
+    }
+}
@@ -0,0 +1,42 @@
+package com.practice.springboottesting.reactive.event;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.practice.springboottesting.model.EmployeeChange;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.util.Collection;
+
+/**
+ * Writes reactive writes to the employee_changes outbox with the same types and payloads as
+ * {@link com.practice.springboottesting.event.EmployeeChangeRecorder}, so change feed subscribers see them whichever
+ * application made them. Called from the writing transaction, so the row commits or rolls back with the write.
+ */
+@Component
+public class ReactiveEmployeeChangeRecorder {
+
+    private final DatabaseClient databaseClient;
+
+    private final ObjectMapper objectMapper;
+
+    public ReactiveEmployeeChangeRecorder(DatabaseClient databaseClient, ObjectMapper objectMapper) {
+        this.databaseClient = databaseClient;
+        this.objectMapper = objectMapper;
+    }
+
+    public Mono<Void> record(EmployeeChange.Type type, Collection<?> payload) {
+        String json;
+        try {
+            json = objectMapper.writeValueAsString(payload);
+        } catch (JsonProcessingException e) {
+            return Mono.error(new IllegalStateException("Could not serialize " + type + " change", e));
+        }
+        // recorded_at is left to the column default, the database clock the change feed settles by
+        return databaseClient.sql("insert into employee_changes (change_type, payload) values (:type, :payload)")
+                .bind("type", type.name())
+                .bind("payload", json)
+                .then();
+    }
+}
@@ -0,0 +1,82 @@
+package com.practice.springboottesting.reactive.handler;
+
+import com.practice.springboottesting.reactive.model.ReactiveEmployee;
+import com.practice.springboottesting.reactive.service.ReactiveEmployeeService;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import org.springframework.web.server.ServerWebInputException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@Component
+public class EmployeeHandler {
+    private ReactiveEmployeeService employeeService;
+
+    public EmployeeHandler(ReactiveEmployeeService employeeService) {
+        this.employeeService = employeeService;
+    }
+
+    public Mono<ServerResponse> createEmployee(ServerRequest request) {
+        return request.bodyToMono(ReactiveEmployee.class)
+                .flatMap(employeeService::save)
+                .flatMap(savedEmployee -> ServerResponse.status(HttpStatus.CREATED).bodyValue(savedEmployee));
+    }
+
+    /**
+     * Streams rows as the database produces them; demand from the client connection is propagated back to the
+     * R2DBC cursor. Clients asking for application/x-ndjson get one employee per line instead of a JSON array.
+     */
+    public Mono<ServerResponse> getAllEmployees(ServerRequest request) {
+        Flux<ReactiveEmployee> employees = request.queryParam("limit")
+                .map(limit -> employeeService.getEmployeesAfter(
+                        parseNumber(request.queryParam("after").orElse("0")), (int) parseNumber(limit)))
+                .orElseGet(employeeService::getAllEmployees);
+        MediaType mediaType = request.headers().accept().contains(MediaType.APPLICATION_NDJSON)
+                ? MediaType.APPLICATION_NDJSON
+                : MediaType.APPLICATION_JSON;
+        return ServerResponse.ok().contentType(mediaType).body(employees, ReactiveEmployee.class);
+    }
+
+    public Mono<ServerResponse> getEmployeeById(ServerRequest request) {
+        return employeeService.getEmployeeById(employeeId(request))
+                .flatMap(employee -> ServerResponse.ok().bodyValue(employee))
+                .switchIfEmpty(ServerResponse.notFound().build());
+    }
+
+    public Mono<ServerResponse> updateEmployee(ServerRequest request) {
+        long employeeId = employeeId(request);
+        return request.bodyToMono(ReactiveEmployee.class)
+                .flatMap(employee -> employeeService.getEmployeeById(employeeId)
+                        .flatMap(savedEmployee -> employeeService.updateEmployee(ReactiveEmployee.builder()
+                                .id(savedEmployee.getId())
+                                .firstName(employee.getFirstName())
+                                .lastName(employee.getLastName())
+                                .email(employee.getEmail())
+                                .version(savedEmployee.getVersion())
+                                .build())))
+                .flatMap(updatedEmployee -> ServerResponse.ok().bodyValue(updatedEmployee))
+                .switchIfEmpty(ServerResponse.notFound().build());
+    }
+
+    public Mono<ServerResponse> deleteEmployee(ServerRequest request) {
+        return employeeService.deleteEmployee(employeeId(request))
+                .flatMap(deleted -> deleted
+                        ? ServerResponse.ok().bodyValue("Employee deleted successfully!.")
+                        : ServerResponse.notFound().build());
+    }
+
+    private static long employeeId(ServerRequest request) {
+        return parseNumber(request.pathVariable("id"));
+    }
+
+    private static long parseNumber(String value) {
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            throw new ServerWebInputException("Not a number: " + value);
+        }
+    }
+}
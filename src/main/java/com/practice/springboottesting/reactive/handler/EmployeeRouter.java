@@ -0,0 +1,22 @@
+package com.practice.springboottesting.reactive.handler;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.reactive.function.server.RouterFunction;
+import org.springframework.web.reactive.function.server.RouterFunctions;
+import org.springframework.web.reactive.function.server.ServerResponse;
+
+@Configuration
+public class EmployeeRouter {
+
+    @Bean
+    public RouterFunction<ServerResponse> employeeRoutes(EmployeeHandler employeeHandler) {
+        return RouterFunctions.route()
+                .POST("/api/employees/", employeeHandler::createEmployee)
+                .GET("/api/employees/", employeeHandler::getAllEmployees)
+                .GET("/api/employees/{id}/", employeeHandler::getEmployeeById)
+                .PUT("/api/employees/{id}/", employeeHandler::updateEmployee)
+                .DELETE("/api/employees/{id}/", employeeHandler::deleteEmployee)
+                .build();
+    }
+}
@@ -0,0 +1,35 @@
+package com.practice.springboottesting.reactive.model;
+
+import lombok.*;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.LastModifiedDate;
+import org.springframework.data.annotation.Version;
+import org.springframework.data.relational.core.mapping.Table;
+
+import java.time.Instant;
+
+/**
+ * R2DBC mapping of the employees table, mirroring {@link com.practice.springboottesting.model.Employee}.
+ */
+@Setter
+@Getter
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@Table("employees")
+public class ReactiveEmployee {
+    @Id
+    private Long id;
+
+    private String firstName;
+
+    private String lastName;
+
+    private String email;
+
+    @Version
+    private Long version;
+
+    @LastModifiedDate
+    private Instant updatedAt;
+}
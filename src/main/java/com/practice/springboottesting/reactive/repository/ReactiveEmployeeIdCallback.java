@@ -0,0 +1,37 @@
+package com.practice.springboottesting.reactive.repository;
+
+import com.practice.springboottesting.reactive.model.ReactiveEmployee;
+import org.reactivestreams.Publisher;
+import org.springframework.data.r2dbc.mapping.event.BeforeConvertCallback;
+import org.springframework.data.relational.core.sql.SqlIdentifier;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+/**
+ * Draws ids for new rows from employees_seq, the sequence JPA uses. JPA's pooled optimizer only hands out
+ * values at or below the ones it fetched itself, so a value taken here is never reused by the MVC application.
+ */
+@Component
+public class ReactiveEmployeeIdCallback implements BeforeConvertCallback<ReactiveEmployee> {
+
+    private final DatabaseClient databaseClient;
+
+    public ReactiveEmployeeIdCallback(DatabaseClient databaseClient) {
+        this.databaseClient = databaseClient;
+    }
+
+    @Override
+    public Publisher<ReactiveEmployee> onBeforeConvert(ReactiveEmployee employee, SqlIdentifier table) {
+        if (employee.getId() != null) {
+            return Mono.just(employee);
+        }
+        return databaseClient.sql("select nextval('employees_seq')")
+                .map(row -> row.get(0, Long.class))
+                .one()
+                .map(id -> {
+                    employee.setId(id);
+                    return employee;
+                });
+    }
+}
@@ -0,0 +1,28 @@
+package com.practice.springboottesting.reactive.repository;
+
+import com.practice.springboottesting.reactive.model.ReactiveEmployee;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.r2dbc.repository.Modifying;
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.r2dbc.repository.R2dbcRepository;
+import org.springframework.data.repository.query.Param;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+public interface ReactiveEmployeeRepository extends R2dbcRepository<ReactiveEmployee, Long> {
+    Mono<ReactiveEmployee> findByEmail(String email);
+
+    Flux<ReactiveEmployee> findByIdGreaterThanOrderByIdAsc(long id, Pageable pageable);
+
+    Mono<ReactiveEmployee> findByFirstNameAndLastName(String firstName, String lastName);
+
+    @Query("select * from employees employee where employee.first_name = $1 and employee.last_name = $2")
+    Mono<ReactiveEmployee> findByFirstNameAndLastNameSql(String firstName, String lastName);
+
+    @Query("select * from employees employee where employee.first_name = :firstName and employee.last_name = :lastName")
+    Mono<ReactiveEmployee> findByFirstNameAndLastNameParamsSql(@Param("firstName") String firstName, @Param("lastName") String lastName);
+
+    @Modifying
+    @Query("delete from employees where id = :id")
+    Mono<Integer> deleteEmployeeById(@Param("id") long id);
+}
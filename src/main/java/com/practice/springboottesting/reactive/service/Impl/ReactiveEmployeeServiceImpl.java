@@ -0,0 +1,91 @@
+package com.practice.springboottesting.reactive.service.Impl;
+
+import com.practice.springboottesting.exception.ResourceConflictException;
+import com.practice.springboottesting.model.Employee;
+import com.practice.springboottesting.model.EmployeeChange;
+import com.practice.springboottesting.reactive.event.ReactiveEmployeeChangeRecorder;
+import com.practice.springboottesting.reactive.model.ReactiveEmployee;
+import com.practice.springboottesting.reactive.repository.ReactiveEmployeeRepository;
+import com.practice.springboottesting.reactive.service.ReactiveEmployeeService;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+/**
+ * Every write records its change in the employee_changes outbox within the same transaction, as the MVC service
+ * does, so the change feed also carries writes made here.
+ */
+@Service
+public class ReactiveEmployeeServiceImpl implements ReactiveEmployeeService {
+
+    public static final int MAX_PAGE_SIZE = 1000;
+
+    private ReactiveEmployeeRepository employeeRepository;
+
+    private ReactiveEmployeeChangeRecorder changeRecorder;
+
+    public ReactiveEmployeeServiceImpl(ReactiveEmployeeRepository employeeRepository,
+                                       ReactiveEmployeeChangeRecorder changeRecorder) {
+        this.employeeRepository = employeeRepository;
+        this.changeRecorder = changeRecorder;
+    }
+
+    @Override
+    @Transactional
+    public Mono<ReactiveEmployee> save(ReactiveEmployee employee) {
+        return employeeRepository.save(employee)
+                .onErrorMap(ReactiveEmployeeServiceImpl::isEmailViolation,
+                        e -> new ResourceConflictException("Employee already exist with given email:" + employee.getEmail(), e))
+                .flatMap(savedEmployee -> changeRecorder.record(EmployeeChange.Type.CREATED, List.of(savedEmployee))
+                        .thenReturn(savedEmployee));
+    }
+
+    @Override
+    public Flux<ReactiveEmployee> getAllEmployees() {
+        return employeeRepository.findAll(Sort.by("id"));
+    }
+
+    @Override
+    public Flux<ReactiveEmployee> getEmployeesAfter(long afterId, int limit) {
+        int pageSize = Math.min(Math.max(limit, 1), MAX_PAGE_SIZE);
+        return employeeRepository.findByIdGreaterThanOrderByIdAsc(afterId, PageRequest.ofSize(pageSize));
+    }
+
+    @Override
+    public Mono<ReactiveEmployee> getEmployeeById(long id) {
+        return employeeRepository.findById(id);
+    }
+
+    @Override
+    @Transactional
+    public Mono<ReactiveEmployee> updateEmployee(ReactiveEmployee updatedEmployee) {
+        return employeeRepository.save(updatedEmployee)
+                .onErrorMap(ReactiveEmployeeServiceImpl::isEmailViolation,
+                        e -> new ResourceConflictException("Employee already exist with given email:" + updatedEmployee.getEmail(), e))
+                .onErrorMap(OptimisticLockingFailureException.class,
+                        e -> new ResourceConflictException("Employee was modified concurrently, id:" + updatedEmployee.getId(), e))
+                .flatMap(savedEmployee -> changeRecorder.record(EmployeeChange.Type.UPDATED, List.of(savedEmployee))
+                        .thenReturn(savedEmployee));
+    }
+
+    @Override
+    @Transactional
+    public Mono<Boolean> deleteEmployee(long id) {
+        return employeeRepository.deleteEmployeeById(id)
+                .flatMap(deletedRows -> deletedRows == 0
+                        ? Mono.just(false)
+                        : changeRecorder.record(EmployeeChange.Type.DELETED, List.of(id)).thenReturn(true));
+    }
+
+    private static boolean isEmailViolation(Throwable e) {
+        return e instanceof DataIntegrityViolationException
+                && String.valueOf(e.getMessage()).toLowerCase().contains(Employee.EMAIL_CONSTRAINT);
+    }
+}
@@ -0,0 +1,19 @@
+package com.practice.springboottesting.reactive.service;
+
+import com.practice.springboottesting.reactive.model.ReactiveEmployee;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+public interface ReactiveEmployeeService {
+    Mono<ReactiveEmployee> save(ReactiveEmployee employee);
+
+    Flux<ReactiveEmployee> getAllEmployees();
+
+    Flux<ReactiveEmployee> getEmployeesAfter(long afterId, int limit);
+
+    Mono<ReactiveEmployee> getEmployeeById(long id);
+
+    Mono<ReactiveEmployee> updateEmployee(ReactiveEmployee updatedEmployee);
+
+    Mono<Boolean> deleteEmployee(long id);
+}
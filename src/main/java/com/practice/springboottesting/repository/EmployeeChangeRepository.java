@@ -0,0 +1,37 @@
+package com.practice.springboottesting.repository;
+
+import com.practice.springboottesting.model.EmployeeChange;
+import com.practice.springboottesting.model.EmployeeCollectionVersion;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.List;
+
+public interface EmployeeChangeRepository extends JpaRepository<EmployeeChange, Long> {
+    /**
+     * Changes after seq that were recorded at least settleNanos ago by the database clock, which is also the one
+     * that sets recorded_at. Read-write on purpose, so that with a replica configured it is served by the primary:
+     * a lagging replica would hold back changes for as long as it lags.
+     */
+    @Transactional
+    @Query("select employeeChange from EmployeeChange employeeChange where employeeChange.seq > :seq "
+            + "and employeeChange.recordedAt < current_instant - :settleNanos nanosecond order by employeeChange.seq")
+    List<EmployeeChange> findSettledAfter(@Param("seq") long seq, @Param("settleNanos") long settleNanos, Pageable pageable);
+
+    /** Reads the end of the primary key index, not the table. */
+    @Query("select new com.practice.springboottesting.model.EmployeeCollectionVersion(coalesce(max(employeeChange.seq), 0)) "
+            + "from EmployeeChange employeeChange")
+    EmployeeCollectionVersion findCollectionVersion();
+
+    /** Keeps the latest change whatever its age, so the collection version survives the purge. */
+    @Transactional
+    @Modifying
+    @Query("delete from EmployeeChange employeeChange where employeeChange.recordedAt < :recordedBefore "
+            + "and employeeChange.seq < (select max(latest.seq) from EmployeeChange latest)")
+    int deleteRecordedBefore(@Param("recordedBefore") Instant recordedBefore);
+}
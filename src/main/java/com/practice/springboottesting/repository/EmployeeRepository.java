@@ -1,15 +1,58 @@
 package com.practice.springboottesting.repository;
 
 import com.practice.springboottesting.model.Employee;
+import com.practice.springboottesting.model.EmployeeSummary;
+import com.practice.springboottesting.model.EmployeeVersion;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
-public interface EmployeeRepository extends JpaRepository<Employee, Long> {
+public interface EmployeeRepository extends JpaRepository<Employee, Long>, EmployeeRepositoryCustom {
     Optional<Employee> findByEmail(String email);
 
+    Slice<EmployeeSummary> findByLastName(String lastName, Pageable pageable);
+
+    Slice<EmployeeSummary> findByLastNameAndFirstName(String lastName, String firstName, Pageable pageable);
+
+    @Query("select new com.practice.springboottesting.model.EmployeeVersion(employee.version, employee.updatedAt) "
+            + "from Employee employee where employee.id = :id")
+    Optional<EmployeeVersion> findVersionById(@Param("id") long id);
+
+    /**
+     * Read-write on purpose, so that with a replica configured it is served by the primary: the employees it
+     * returns are cached, and a lagging replica would put rows in the cache that a write has already replaced.
+     */
+    @Transactional
+    @Query("select employee from Employee employee where employee.id in :ids")
+    List<Employee> findAllByIdOnPrimary(@Param("ids") Collection<Long> ids);
+
+    @Query("select employee.email from Employee employee where employee.email in :emails")
+    Set<String> findExistingEmails(@Param("emails") Collection<String> emails);
+
+    /**
+     * The ids among the given ones that exist, locked, so a concurrent delete of the same rows waits for this
+     * transaction and then finds them gone.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select employee.id from Employee employee where employee.id in :ids")
+    List<Long> findIdsForDelete(@Param("ids") Collection<Long> ids);
+
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("delete from Employee employee where employee.id in :ids")
+    int deleteByIds(@Param("ids") Collection<Long> ids);
+
     @Query("select employee from Employee employee where employee.firstName = ?1 and employee.lastName = ?2")
     Employee findByFirstNameAndLastName(String firstName, String lastName);
 
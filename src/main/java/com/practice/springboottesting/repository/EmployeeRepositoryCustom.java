@@ -0,0 +1,33 @@
+package com.practice.springboottesting.repository;
+
+import com.practice.springboottesting.model.Employee;
+import com.practice.springboottesting.model.EmployeeView;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+public interface EmployeeRepositoryCustom {
+    /**
+     * Walks every employee ordered by id through a forward-only cursor with a bounded fetch size.
+     * Each row is detached once handed to the action, so the persistence context never grows.
+     */
+    void forEachEmployee(Consumer<Employee> action);
+
+    /**
+     * Every employee as a read-only view. With employees.read-model.deduplicate-names=true, equal first and last
+     * names across the result share one String instance.
+     */
+    List<EmployeeView> findAllViews();
+
+    /** Up to {@code limit} views of the employees after {@code id}, ordered by id. Names are deduplicated the same way. */
+    List<EmployeeView> findViewsAfter(long id, int limit);
+
+    /**
+     * Applies the non-null name and email fields of {@code changes} with a single {@code UPDATE ... WHERE id = ?}
+     * that only touches those columns and bumps the version. When {@code changes} carries a version the update
+     * only happens if it still matches.
+     *
+     * @return the number of updated rows, 0 when the id is unknown or the version is stale
+     */
+    int patchEmployee(long id, Employee changes);
+}
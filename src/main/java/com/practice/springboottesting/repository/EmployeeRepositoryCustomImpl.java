@@ -0,0 +1,122 @@
+package com.practice.springboottesting.repository;
+
+import com.practice.springboottesting.model.Employee;
+import com.practice.springboottesting.model.EmployeeView;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+import jakarta.persistence.TypedQuery;
+import org.hibernate.jpa.AvailableHints;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+public class EmployeeRepositoryCustomImpl implements EmployeeRepositoryCustom {
+
+    private static final String VIEW_SELECT = "select employee.id, employee.firstName, employee.lastName, employee.email, "
+            + "employee.version, employee.updatedAt from Employee employee";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${employees.stream.fetch-size:500}")
+    private int fetchSize;
+
+    @Value("${employees.read-model.deduplicate-names:false}")
+    private boolean deduplicateNames;
+
+    @Override
+    @Transactional(readOnly = true)
+    public void forEachEmployee(Consumer<Employee> action) {
+        try (Stream<Employee> employees = entityManager
+                .createQuery("select employee from Employee employee order by employee.id", Employee.class)
+                .setHint(AvailableHints.HINT_FETCH_SIZE, fetchSize)
+                .setHint(AvailableHints.HINT_READ_ONLY, true)
+                .getResultStream()) {
+            employees.forEach(employee -> {
+                entityManager.detach(employee);
+                action.accept(employee);
+            });
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<EmployeeView> findAllViews() {
+        return toViews(entityManager.createQuery(VIEW_SELECT, Object[].class));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<EmployeeView> findViewsAfter(long id, int limit) {
+        return toViews(entityManager.createQuery(VIEW_SELECT + " where employee.id > :id order by employee.id", Object[].class)
+                .setParameter("id", id)
+                .setMaxResults(limit));
+    }
+
+    /** Builds each view straight from the row tuple, reusing one instance per distinct name when deduplicating. */
+    @SuppressWarnings("unchecked")
+    private List<EmployeeView> toViews(TypedQuery<Object[]> query) {
+        Map<String, String> names = deduplicateNames ? new HashMap<>() : null;
+        org.hibernate.query.Query<Object[]> rows = query.unwrap(org.hibernate.query.Query.class);
+        return rows.setTupleTransformer((tuple, aliases) -> new EmployeeView(
+                        (Long) tuple[0],
+                        canonical(names, (String) tuple[1]),
+                        canonical(names, (String) tuple[2]),
+                        (String) tuple[3],
+                        (Long) tuple[4],
+                        (Instant) tuple[5]))
+                .getResultList();
+    }
+
+    private static String canonical(Map<String, String> names, String name) {
+        if (names == null) {
+            return name;
+        }
+        String existing = names.putIfAbsent(name, name);
+        return existing != null ? existing : name;
+    }
+
+    @Override
+    @Transactional
+    public int patchEmployee(long id, Employee changes) {
+        Map<String, Object> assignments = new LinkedHashMap<>();
+        if (changes.getFirstName() != null) {
+            assignments.put("firstName", changes.getFirstName());
+        }
+        if (changes.getLastName() != null) {
+            assignments.put("lastName", changes.getLastName());
+        }
+        if (changes.getEmail() != null) {
+            assignments.put("email", changes.getEmail());
+        }
+
+        // bulk updates bypass @Version and @UpdateTimestamp, so both are maintained here
+        assignments.put("updatedAt", Instant.now());
+        StringBuilder jpql = new StringBuilder("update Employee employee set employee.version = employee.version + 1");
+        assignments.keySet().forEach(field -> jpql.append(", employee.").append(field).append(" = :").append(field));
+        jpql.append(" where employee.id = :id");
+        if (changes.getVersion() != null) {
+            jpql.append(" and employee.version = :version");
+        }
+
+        Query query = entityManager.createQuery(jpql.toString()).setParameter("id", id);
+        assignments.forEach(query::setParameter);
+        if (changes.getVersion() != null) {
+            query.setParameter("version", changes.getVersion());
+        }
+
+        // same contract as @Modifying(flushAutomatically = true, clearAutomatically = true)
+        entityManager.flush();
+        int updatedRows = query.executeUpdate();
+        entityManager.clear();
+        return updatedRows;
+    }
+}
@@ -0,0 +1,262 @@
+package com.practice.springboottesting.search;
+
+import com.practice.springboottesting.model.EmployeeSummary;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.Consumer;
+
+/**
+ * In-memory type-ahead index over first name, last name and email.
+ *
+ * <p>Every lowercased field is a term in a sorted map, so a prefix lookup is a range scan that stops as soon as
+ * enough employees are found. Queries without any prefix match fall back to trigram similarity, which tolerates
+ * typos. Reads are lock-free; writes are serialized because one employee touches several postings.
+ *
+ * <p>{@link #rebuild} loads a fresh set of postings while queries keep using the current one, then swaps it in.
+ * Writes arriving during the load are applied to both, so none of them is lost by the swap.
+ */
+@Component
+public class EmployeeSearchIndex {
+
+    public static final int MAX_SUGGESTIONS = 50;
+
+    /** Share of the query trigrams a candidate must contain to be suggested by the fuzzy fallback. */
+    static final double MIN_SIMILARITY = 0.5;
+
+    private volatile Postings postings = new Postings();
+
+    /** Writes made while a rebuild is loading, replayed onto its postings before the swap; guarded by this. */
+    private List<Consumer<Postings>> writesDuringRebuild;
+
+    public synchronized void index(EmployeeSummary employee) {
+        apply(target -> target.index(employee));
+    }
+
+    public synchronized void remove(long id) {
+        apply(target -> target.remove(id));
+    }
+
+    private void apply(Consumer<Postings> write) {
+        write.accept(postings);
+        if (writesDuringRebuild != null) {
+            writesDuringRebuild.add(write);
+        }
+    }
+
+    /**
+     * Replaces the content of the index with the employees the loader passes to its sink. Until the loader
+     * returns, suggestions come from the previous content; if it fails, that content stays in place.
+     */
+    public void rebuild(Consumer<Consumer<EmployeeSummary>> loader) {
+        synchronized (this) {
+            if (writesDuringRebuild != null) {
+                throw new IllegalStateException("The search index is already being rebuilt");
+            }
+            writesDuringRebuild = new ArrayList<>();
+        }
+        Postings rebuilt = new Postings();
+        try {
+            loader.accept(rebuilt::index);
+        } catch (RuntimeException | Error e) {
+            synchronized (this) {
+                writesDuringRebuild = null;
+            }
+            throw e;
+        }
+        synchronized (this) {
+            writesDuringRebuild.forEach(write -> write.accept(rebuilt));
+            writesDuringRebuild = null;
+            postings = rebuilt;
+        }
+    }
+
+    public int size() {
+        return postings.employees.size();
+    }
+
+    /**
+     * Employees whose fields start with every word of the query, in term order, or the closest fuzzy matches
+     * when nothing starts with it.
+     */
+    public List<EmployeeSummary> suggest(String query, int limit) {
+        String[] tokens = tokensOf(query);
+        int maxResults = Math.min(Math.max(limit, 1), MAX_SUGGESTIONS);
+        if (tokens.length == 0) {
+            return List.of();
+        }
+        Postings current = postings;
+        List<EmployeeSummary> prefixMatches = current.prefixMatches(tokens, maxResults);
+        return prefixMatches.isEmpty() ? current.fuzzyMatches(tokens, maxResults) : prefixMatches;
+    }
+
+    /** One complete set of postings; the index swaps whole instances, never mixes two. */
+    private static final class Postings {
+
+        private final ConcurrentMap<Long, EmployeeSummary> employees = new ConcurrentHashMap<>();
+
+        private final ConcurrentMap<Long, String[]> termsById = new ConcurrentHashMap<>();
+
+        private final ConcurrentNavigableMap<String, Set<Long>> terms = new ConcurrentSkipListMap<>();
+
+        private final ConcurrentMap<String, Set<Long>> trigrams = new ConcurrentHashMap<>();
+
+        void index(EmployeeSummary employee) {
+            EmployeeSummary previous = employees.put(employee.id(), employee);
+            if (previous != null) {
+                unlink(previous);
+            }
+            Set<String> employeeTerms = termsOf(employee);
+            termsById.put(employee.id(), employeeTerms.toArray(String[]::new));
+            for (String term : employeeTerms) {
+                terms.computeIfAbsent(term, key -> ConcurrentHashMap.newKeySet()).add(employee.id());
+                for (String trigram : trigramsOf(term)) {
+                    trigrams.computeIfAbsent(trigram, key -> ConcurrentHashMap.newKeySet()).add(employee.id());
+                }
+            }
+        }
+
+        void remove(long id) {
+            EmployeeSummary previous = employees.remove(id);
+            termsById.remove(id);
+            if (previous != null) {
+                unlink(previous);
+            }
+        }
+
+        List<EmployeeSummary> prefixMatches(String[] tokens, int maxResults) {
+            // the longest word is the most selective one; the others are checked against the candidates
+            String pivot = Arrays.stream(tokens).max(Comparator.comparingInt(String::length)).orElseThrow();
+            Set<Long> matches = new LinkedHashSet<>();
+            for (Set<Long> ids : terms.subMap(pivot, true, pivot + Character.MAX_VALUE, false).values()) {
+                for (Long id : ids) {
+                    if ((tokens.length == 1 || matchesAll(termsById.get(id), tokens)) && matches.add(id) && matches.size() == maxResults) {
+                        return summariesOf(matches);
+                    }
+                }
+            }
+            return summariesOf(matches);
+        }
+
+        List<EmployeeSummary> fuzzyMatches(String[] tokens, int maxResults) {
+            Set<String> queryTrigrams = new LinkedHashSet<>();
+            for (String token : tokens) {
+                queryTrigrams.addAll(trigramsOf(token));
+            }
+            List<Set<Long>> postings = queryTrigrams.stream()
+                    .map(trigram -> trigrams.getOrDefault(trigram, Set.of()))
+                    .sorted(Comparator.comparingInt(Set::size))
+                    .toList();
+            int minShared = Math.max(1, (int) Math.ceil(postings.size() * MIN_SIMILARITY));
+
+            // an employee sharing minShared trigrams must appear in at least one of the rarest
+            // (size - minShared + 1) postings, so only those are scanned; the common ones are probed
+            int candidatePostings = postings.size() - minShared + 1;
+            Map<Long, Integer> sharedTrigrams = new HashMap<>();
+            for (Set<Long> ids : postings.subList(0, candidatePostings)) {
+                for (Long id : ids) {
+                    sharedTrigrams.merge(id, 1, Integer::sum);
+                }
+            }
+            for (Map.Entry<Long, Integer> candidate : sharedTrigrams.entrySet()) {
+                for (Set<Long> ids : postings.subList(candidatePostings, postings.size())) {
+                    if (ids.contains(candidate.getKey())) {
+                        candidate.setValue(candidate.getValue() + 1);
+                    }
+                }
+            }
+            List<Long> ranked = sharedTrigrams.entrySet().stream()
+                    .filter(entry -> entry.getValue() >= minShared)
+                    .sorted(Map.Entry.<Long, Integer>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey()))
+                    .limit(maxResults)
+                    .map(Map.Entry::getKey)
+                    .toList();
+            return summariesOf(ranked);
+        }
+
+        private List<EmployeeSummary> summariesOf(Iterable<Long> ids) {
+            List<EmployeeSummary> summaries = new ArrayList<>();
+            for (Long id : ids) {
+                EmployeeSummary employee = employees.get(id);
+                if (employee != null) {
+                    summaries.add(employee);
+                }
+            }
+            return summaries;
+        }
+
+        private void unlink(EmployeeSummary employee) {
+            for (String term : termsOf(employee)) {
+                removePosting(terms, term, employee.id());
+                for (String trigram : trigramsOf(term)) {
+                    removePosting(trigrams, trigram, employee.id());
+                }
+            }
+        }
+
+    }
+
+    private static void removePosting(ConcurrentMap<String, Set<Long>> postings, String key, long id) {
+        postings.computeIfPresent(key, (ignored, ids) -> {
+            ids.remove(id);
+            return ids.isEmpty() ? null : ids;
+        });
+    }
+
+    private static boolean matchesAll(String[] employeeTerms, String[] tokens) {
+        if (employeeTerms == null) {
+            return false;
+        }
+        for (String token : tokens) {
+            if (!matchesAny(employeeTerms, token)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean matchesAny(String[] employeeTerms, String token) {
+        for (String term : employeeTerms) {
+            if (term.startsWith(token)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static Set<String> termsOf(EmployeeSummary employee) {
+        Set<String> employeeTerms = new LinkedHashSet<>();
+        for (String field : new String[]{employee.firstName(), employee.lastName(), employee.email()}) {
+            employeeTerms.addAll(Arrays.asList(tokensOf(field)));
+        }
+        return employeeTerms;
+    }
+
+    private static String[] tokensOf(String text) {
+        if (text == null || text.isBlank()) {
+            return new String[0];
+        }
+        return text.trim().toLowerCase(Locale.ROOT).split("\\s+");
+    }
+
+    private static Set<String> trigramsOf(String term) {
+        String padded = "  " + term + " ";
+        Set<String> termTrigrams = new LinkedHashSet<>();
+        for (int i = 0; i + 3 <= padded.length(); i++) {
+            termTrigrams.add(padded.substring(i, i + 3));
+        }
+        return termTrigrams;
+    }
+}
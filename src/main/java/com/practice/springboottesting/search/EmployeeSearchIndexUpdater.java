@@ -0,0 +1,53 @@
+package com.practice.springboottesting.search;
+
+import com.practice.springboottesting.event.EmployeeEvent;
+import com.practice.springboottesting.model.EmployeeSummary;
+import com.practice.springboottesting.repository.EmployeeRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Loads the search index once the application is ready and then keeps it in step with committed writes, so
+ * suggestions never query the database.
+ */
+@Component
+public class EmployeeSearchIndexUpdater {
+    private static final Logger log = LoggerFactory.getLogger(EmployeeSearchIndexUpdater.class);
+
+    private EmployeeRepository employeeRepository;
+
+    private EmployeeSearchIndex searchIndex;
+
+    public EmployeeSearchIndexUpdater(EmployeeRepository employeeRepository, EmployeeSearchIndex searchIndex) {
+        this.employeeRepository = employeeRepository;
+        this.searchIndex = searchIndex;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        long start = System.nanoTime();
+        searchIndex.rebuild(sink -> employeeRepository.forEachEmployee(employee -> sink.accept(EmployeeSummary.of(employee))));
+        log.info("Indexed {} employees for suggestions in {} ms", searchIndex.size(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onSaved(EmployeeEvent.Saved event) {
+        event.employees().forEach(employee -> searchIndex.index(EmployeeSummary.of(employee)));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPatched(EmployeeEvent.Patched event) {
+        employeeRepository.findById(event.id()).ifPresentOrElse(
+                employee -> searchIndex.index(EmployeeSummary.of(employee)),
+                () -> searchIndex.remove(event.id()));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onDeleted(EmployeeEvent.Deleted event) {
+        event.ids().forEach(searchIndex::remove);
+    }
+}
@@ -0,0 +1,156 @@
+package com.practice.springboottesting.service;
+
+import com.practice.springboottesting.model.Employee;
+import com.practice.springboottesting.repository.EmployeeRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Loads employees by id for many concurrent callers with few queries. Callers asking for an id that is already
+ * being loaded wait for that load instead of starting their own (single flight). Ids requested within
+ * employees.loader.batch-window of each other are fetched together with one findAllById; the caller that opens
+ * a batch waits out the window and runs the query, so no extra threads are involved.
+ *
+ * <p>Waiting callers hold no connection, only the query does. Metrics: employee.loader.requests counts lookups,
+ * employee.loader.queries the queries actually run; the difference is what coalescing and batching saved.
+ */
+@Component
+public class EmployeeByIdLoader {
+
+    private final EmployeeRepository employeeRepository;
+
+    private final long batchWindowNanos;
+
+    private final int maxBatchSize;
+
+    private final Map<Long, CompletableFuture<Optional<Employee>>> inFlight = new ConcurrentHashMap<>();
+
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private final Condition batchFull = lock.newCondition();
+
+    /** The batch still accepting ids; guarded by lock. */
+    private List<Long> openBatch;
+
+    private final Counter requests;
+
+    private final Counter coalesced;
+
+    private final Counter queries;
+
+    private final DistributionSummary batchSizes;
+
+    public EmployeeByIdLoader(EmployeeRepository employeeRepository, MeterRegistry meterRegistry,
+                              @Value("${employees.loader.batch-window:1ms}") Duration batchWindow,
+                              @Value("${employees.loader.max-batch-size:100}") int maxBatchSize) {
+        this.employeeRepository = employeeRepository;
+        this.batchWindowNanos = batchWindow.toNanos();
+        this.maxBatchSize = maxBatchSize;
+        this.requests = Counter.builder("employee.loader.requests").register(meterRegistry);
+        this.coalesced = Counter.builder("employee.loader.coalesced").register(meterRegistry);
+        this.queries = Counter.builder("employee.loader.queries").register(meterRegistry);
+        this.batchSizes = DistributionSummary.builder("employee.loader.batch.size").register(meterRegistry);
+    }
+
+    public Optional<Employee> load(long id) {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            // another thread's query could not see what this transaction has written
+            return employeeRepository.findById(id);
+        }
+        requests.increment();
+        CompletableFuture<Optional<Employee>> result = new CompletableFuture<>();
+        CompletableFuture<Optional<Employee>> existing = inFlight.putIfAbsent(id, result);
+        if (existing != null) {
+            coalesced.increment();
+            return await(existing);
+        }
+
+        List<Long> ownBatch = null;
+        lock.lock();
+        try {
+            if (openBatch == null) {
+                openBatch = new ArrayList<>(maxBatchSize);
+                ownBatch = openBatch;
+            }
+            openBatch.add(id);
+            if (openBatch.size() >= maxBatchSize) {
+                openBatch = null;
+                batchFull.signalAll();
+            }
+        } finally {
+            lock.unlock();
+        }
+        if (ownBatch != null) {
+            dispatch(ownBatch);
+        }
+        return await(result);
+    }
+
+    private void dispatch(List<Long> batch) {
+        lock.lock();
+        try {
+            long remainingNanos = batchWindowNanos;
+            while (openBatch == batch && remainingNanos > 0) {
+                remainingNanos = batchFull.awaitNanos(remainingNanos);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            if (openBatch == batch) {
+                openBatch = null;
+            }
+            lock.unlock();
+        }
+
+        Throwable failure = null;
+        try {
+            queries.increment();
+            batchSizes.record(batch.size());
+            Map<Long, Employee> employees = employeeRepository.findAllByIdOnPrimary(batch).stream()
+                    .collect(Collectors.toMap(Employee::getId, Function.identity()));
+            // removed before completing, so later callers start a fresh load rather than reuse this one
+            batch.forEach(id -> inFlight.remove(id).complete(Optional.ofNullable(employees.get(id))));
+        } catch (Throwable e) {
+            failure = e;
+        } finally {
+            // whatever the failure, even an Error, no id stays in flight with callers waiting on it forever
+            for (Long id : batch) {
+                CompletableFuture<Optional<Employee>> pending = inFlight.remove(id);
+                if (pending != null) {
+                    pending.completeExceptionally(failure);
+                }
+            }
+        }
+    }
+
+    private static Optional<Employee> await(CompletableFuture<Optional<Employee>> result) {
+        try {
+            return result.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+}
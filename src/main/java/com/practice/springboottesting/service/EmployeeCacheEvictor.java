@@ -0,0 +1,40 @@
+package com.practice.springboottesting.service;
+
+import com.practice.springboottesting.config.CacheConfig;
+import com.practice.springboottesting.event.EmployeeEvent;
+import com.practice.springboottesting.model.Employee;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Evicts written employees from the employees cache once the write has committed. Evicting earlier lets a
+ * concurrent cache miss load the old row again before the commit and keep serving it until it expires. Every
+ * write path (single and batch saves, imports, write-behind, patches and deletes) publishes an EmployeeEvent, so
+ * none of them can leave a stale entry behind.
+ */
+@Component
+public class EmployeeCacheEvictor {
+
+    private final Cache employees;
+
+    public EmployeeCacheEvictor(CacheManager cacheManager) {
+        this.employees = cacheManager.getCache(CacheConfig.EMPLOYEES_CACHE);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onSaved(EmployeeEvent.Saved event) {
+        event.employees().stream().map(Employee::getId).forEach(employees::evict);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPatched(EmployeeEvent.Patched event) {
+        employees.evict(event.id());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onDeleted(EmployeeEvent.Deleted event) {
+        event.ids().forEach(employees::evict);
+    }
+}
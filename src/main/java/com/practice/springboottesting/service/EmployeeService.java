@@ -1,18 +1,55 @@
 package com.practice.springboottesting.service;
 
 import com.practice.springboottesting.model.Employee;
+import com.practice.springboottesting.model.EmployeeCollectionVersion;
+import com.practice.springboottesting.model.EmployeeLookup;
+import com.practice.springboottesting.model.EmployeeSummary;
+import com.practice.springboottesting.model.EmployeeVersion;
+import com.practice.springboottesting.model.EmployeeView;
+import org.springframework.data.domain.Slice;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
 
 public interface EmployeeService {
     Employee save(Employee employee);
 
-    List<Employee> getAllEmployees();
+    List<Employee> saveAll(List<Employee> employees);
+
+    /**
+     * Batch insert for callers that already checked the emails with {@link #findExistingEmails(Collection)}.
+     * A duplicate that got in concurrently still fails the whole call with a ResourceConflictException.
+     */
+    List<Employee> insertAll(List<Employee> employees);
+
+    Set<String> findExistingEmails(Collection<String> emails);
+
+    List<EmployeeView> getAllEmployees();
+
+    EmployeeCollectionVersion getEmployeesVersion();
+
+    List<EmployeeView> getEmployeesAfter(long afterId, int limit);
+
+    Slice<EmployeeSummary> searchEmployees(String lastName, String firstName, int page, int size);
+
+    List<EmployeeSummary> suggestEmployees(String query, int limit);
+
+    void forEachEmployee(Consumer<Employee> action);
 
     Optional<Employee> getEmployeeById(long id);
 
+    EmployeeLookup getEmployeesByIds(long[] ids);
+
+    Optional<EmployeeVersion> getEmployeeVersion(long id);
+
     Employee updateEmployee(Employee updatedEmployee);
 
-    void deleteEmployee(long id);
+    boolean patchEmployee(long id, Employee changes);
+
+    boolean deleteEmployee(long id);
+
+    int deleteEmployees(Collection<Long> ids);
 }
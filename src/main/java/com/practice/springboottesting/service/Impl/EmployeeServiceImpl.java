@@ -1,49 +1,323 @@
 package com.practice.springboottesting.service.Impl;
 
-import com.practice.springboottesting.exception.ResourceNotFoundException;
+import com.practice.springboottesting.config.CacheConfig;
+import com.practice.springboottesting.event.EmployeeEvent;
+import com.practice.springboottesting.exception.ResourceConflictException;
+import com.practice.springboottesting.exception.StaleVersionException;
 import com.practice.springboottesting.model.Employee;
+import com.practice.springboottesting.model.EmployeeCollectionVersion;
+import com.practice.springboottesting.model.EmployeeLookup;
+import com.practice.springboottesting.model.EmployeeSummary;
+import com.practice.springboottesting.model.EmployeeVersion;
+import com.practice.springboottesting.model.EmployeeView;
+import com.practice.springboottesting.repository.EmployeeChangeRepository;
 import com.practice.springboottesting.repository.EmployeeRepository;
+import com.practice.springboottesting.search.EmployeeSearchIndex;
+import com.practice.springboottesting.service.EmployeeByIdLoader;
 import com.practice.springboottesting.service.EmployeeService;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.LongStream;
 
+/**
+ * Writes run in one transaction each, so multi-statement operations are atomic and events reach listeners after
+ * commit. Reads are read-only transactions: Hibernate skips dirty checking, snapshots and flushes, and with a
+ * replica configured they are served by it.
+ */
 @Service
+@Transactional
+@Timed(value = "employee.service", histogram = true)
 public class EmployeeServiceImpl implements EmployeeService {
 
+    public static final int MAX_PAGE_SIZE = 1000;
+
+    /** Follows the (last_name, first_name) index; id only breaks ties between namesakes. */
+    private static final Sort NAME_ORDER = Sort.by("firstName", "id");
+
+    /** Matches spring.jpa.properties.hibernate.jdbc.batch_size so every chunk is one JDBC batch. */
+    public static final int BATCH_SIZE = 50;
+
+    /** Keeps 'id in (...)' lists of deletes and lookups well below the bind parameter limits of the drivers. */
+    public static final int ID_CHUNK_SIZE = 1000;
+
     private EmployeeRepository employeeRepository;
 
-    public EmployeeServiceImpl(EmployeeRepository employeeRepository) {
+    private EmployeeChangeRepository changeRepository;
+
+    private ApplicationEventPublisher eventPublisher;
+
+    private EmployeeSearchIndex searchIndex;
+
+    private EmployeeByIdLoader employeeLoader;
+
+    public EmployeeServiceImpl(EmployeeRepository employeeRepository, EmployeeChangeRepository changeRepository,
+                               ApplicationEventPublisher eventPublisher, EmployeeSearchIndex searchIndex,
+                               EmployeeByIdLoader employeeLoader) {
         this.employeeRepository = employeeRepository;
+        this.changeRepository = changeRepository;
+        this.eventPublisher = eventPublisher;
+        this.searchIndex = searchIndex;
+        this.employeeLoader = employeeLoader;
     }
 
     @Override
     public Employee save(Employee employee) {
-        Optional<Employee> retrievedEmployee = employeeRepository.findByEmail(employee.getEmail());
-        if (retrievedEmployee.isPresent()) {
-            throw new ResourceNotFoundException("Employee already exist with given email:" + employee.getEmail());
+        Employee savedEmployee;
+        try {
+            savedEmployee = employeeRepository.saveAndFlush(employee);
+        } catch (DataIntegrityViolationException e) {
+            throw translateEmailViolation(e, "Employee already exist with given email:" + employee.getEmail());
+        }
+        eventPublisher.publishEvent(new EmployeeEvent.Saved(List.of(savedEmployee)));
+        return savedEmployee;
+    }
+
+    @Override
+    public List<Employee> saveAll(List<Employee> employees) {
+        Set<String> duplicatedEmails = new LinkedHashSet<>();
+        Set<String> requestEmails = new HashSet<>();
+        for (Employee employee : employees) {
+            if (!requestEmails.add(employee.getEmail())) {
+                duplicatedEmails.add(employee.getEmail());
+            }
+        }
+        for (List<Employee> chunk : chunks(employees)) {
+            duplicatedEmails.addAll(employeeRepository.findExistingEmails(chunk.stream().map(Employee::getEmail).toList()));
+        }
+        if (!duplicatedEmails.isEmpty()) {
+            throw new ResourceConflictException("Employee already exist with given emails:" + duplicatedEmails);
+        }
+
+        List<Employee> savedEmployees = new ArrayList<>(employees.size());
+        try {
+            for (List<Employee> chunk : chunks(employees)) {
+                savedEmployees.addAll(employeeRepository.saveAll(chunk));
+            }
+            // a duplicate inserted concurrently since the check above fails here, where it can be translated
+            employeeRepository.flush();
+        } catch (DataIntegrityViolationException e) {
+            throw translateEmailViolation(e, "Employee already exist with one of the given emails");
+        }
+        eventPublisher.publishEvent(new EmployeeEvent.Saved(savedEmployees));
+        return savedEmployees;
+    }
+
+    @Override
+    public List<Employee> insertAll(List<Employee> employees) {
+        List<Employee> savedEmployees = new ArrayList<>(employees.size());
+        try {
+            for (List<Employee> chunk : chunks(employees)) {
+                savedEmployees.addAll(employeeRepository.saveAll(chunk));
+            }
+            // surfaces a duplicate here, where it can be translated, rather than at commit
+            employeeRepository.flush();
+        } catch (DataIntegrityViolationException e) {
+            throw translateEmailViolation(e, "Employee already exist with one of the given emails");
         }
-        return employeeRepository.save(employee);
+        eventPublisher.publishEvent(new EmployeeEvent.Saved(savedEmployees));
+        return savedEmployees;
+    }
+
+    /**
+     * Not read-only on purpose: the answer has to include rows committed a moment ago, which a lagging replica
+     * may not have yet.
+     */
+    @Override
+    public Set<String> findExistingEmails(Collection<String> emails) {
+        return employeeRepository.findExistingEmails(emails);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<EmployeeView> getAllEmployees() {
+        return employeeRepository.findAllViews();
     }
 
     @Override
-    public List<Employee> getAllEmployees() {
-        return employeeRepository.findAll();
+    @Transactional(readOnly = true)
+    public EmployeeCollectionVersion getEmployeesVersion() {
+        return changeRepository.findCollectionVersion();
     }
 
     @Override
+    @Transactional(readOnly = true)
+    public List<EmployeeView> getEmployeesAfter(long afterId, int limit) {
+        return employeeRepository.findViewsAfter(afterId, Math.min(Math.max(limit, 1), MAX_PAGE_SIZE));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Slice<EmployeeSummary> searchEmployees(String lastName, String firstName, int page, int size) {
+        PageRequest pageRequest = PageRequest.of(Math.max(page, 0), Math.min(Math.max(size, 1), MAX_PAGE_SIZE), NAME_ORDER);
+        if (firstName == null || firstName.isBlank()) {
+            return employeeRepository.findByLastName(lastName, pageRequest);
+        }
+        return employeeRepository.findByLastNameAndFirstName(lastName, firstName, pageRequest);
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public List<EmployeeSummary> suggestEmployees(String query, int limit) {
+        return searchIndex.suggest(query, limit);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void forEachEmployee(Consumer<Employee> action) {
+        employeeRepository.forEachEmployee(action);
+    }
+
+    /**
+     * Misses go through the loader, which runs its own query on the primary; no transaction is started here, so
+     * callers waiting for a shared query do not hold a connection.
+     */
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS)
+    @Cacheable(cacheNames = CacheConfig.EMPLOYEES_CACHE, unless = "#result == null")
     public Optional<Employee> getEmployeeById(long id) {
-        return employeeRepository.findById(id);
+        return employeeLoader.load(id);
+    }
+
+    /**
+     * Ids stay in primitive arrays: they are sorted and deduplicated once, loaded with one 'id in (...)' query per
+     * chunk, and matched back to the request by binary search. Only the ids of the chunk being queried are boxed.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public EmployeeLookup getEmployeesByIds(long[] ids) {
+        long[] distinctIds = Arrays.stream(ids).sorted().distinct().toArray();
+        Employee[] employeesByIndex = new Employee[distinctIds.length];
+        for (int from = 0; from < distinctIds.length; from += ID_CHUNK_SIZE) {
+            List<Long> chunk = Arrays.stream(distinctIds, from, Math.min(from + ID_CHUNK_SIZE, distinctIds.length)).boxed().toList();
+            for (Employee employee : employeeRepository.findAllById(chunk)) {
+                employeesByIndex[Arrays.binarySearch(distinctIds, employee.getId())] = employee;
+            }
+        }
+
+        List<Employee> employees = new ArrayList<>(distinctIds.length);
+        LongStream.Builder missingIds = LongStream.builder();
+        boolean[] answered = new boolean[distinctIds.length];
+        for (long id : ids) {
+            int index = Arrays.binarySearch(distinctIds, id);
+            if (answered[index]) {
+                continue;
+            }
+            answered[index] = true;
+            if (employeesByIndex[index] != null) {
+                employees.add(employeesByIndex[index]);
+            } else {
+                missingIds.add(id);
+            }
+        }
+        return new EmployeeLookup(employees, missingIds.build().toArray());
+    }
+
+    /**
+     * Not read-only on purpose: the version is compared with the one the client last received from a write, which
+     * a lagging replica may not have yet.
+     */
+    @Override
+    public Optional<EmployeeVersion> getEmployeeVersion(long id) {
+        return employeeRepository.findVersionById(id);
     }
 
     @Override
     public Employee updateEmployee(Employee updatedEmployee) {
-        return employeeRepository.save(updatedEmployee);
+        Employee savedEmployee;
+        try {
+            savedEmployee = employeeRepository.saveAndFlush(updatedEmployee);
+        } catch (DataIntegrityViolationException e) {
+            throw translateEmailViolation(e, "Employee already exist with given email:" + updatedEmployee.getEmail());
+        } catch (OptimisticLockingFailureException e) {
+            throw new StaleVersionException("Employee was modified concurrently, id:" + updatedEmployee.getId(), e);
+        }
+        eventPublisher.publishEvent(new EmployeeEvent.Saved(List.of(savedEmployee)));
+        return savedEmployee;
     }
 
     @Override
-    public void deleteEmployee(long id) {
-        employeeRepository.deleteById(id);
+    public boolean patchEmployee(long id, Employee changes) {
+        int updatedRows;
+        try {
+            updatedRows = employeeRepository.patchEmployee(id, changes);
+        } catch (DataIntegrityViolationException e) {
+            throw translateEmailViolation(e, "Employee already exist with given email:" + changes.getEmail());
+        }
+        // only a stale version needs the extra lookup; an unknown id is the common way to update nothing
+        if (updatedRows == 0 && changes.getVersion() != null && employeeRepository.existsById(id)) {
+            throw new StaleVersionException("Employee was modified concurrently, id:" + id);
+        }
+        if (updatedRows == 0) {
+            return false;
+        }
+        eventPublisher.publishEvent(new EmployeeEvent.Patched(id));
+        return true;
+    }
+
+    @Override
+    public boolean deleteEmployee(long id) {
+        if (employeeRepository.deleteByIds(List.of(id)) == 0) {
+            return false;
+        }
+        eventPublisher.publishEvent(new EmployeeEvent.Deleted(List.of(id)));
+        return true;
+    }
+
+    @Override
+    public int deleteEmployees(Collection<Long> ids) {
+        List<Long> distinctIds = ids.stream().distinct().toList();
+        // only ids that existed are published, so the change feed never reports deletions of unknown employees
+        List<Long> deletedIds = new ArrayList<>();
+        int deletedRows = 0;
+        for (int from = 0; from < distinctIds.size(); from += ID_CHUNK_SIZE) {
+            List<Long> existingIds = employeeRepository.findIdsForDelete(distinctIds.subList(from, Math.min(from + ID_CHUNK_SIZE, distinctIds.size())));
+            if (!existingIds.isEmpty()) {
+                deletedRows += employeeRepository.deleteByIds(existingIds);
+                deletedIds.addAll(existingIds);
+            }
+        }
+        if (!deletedIds.isEmpty()) {
+            eventPublisher.publishEvent(new EmployeeEvent.Deleted(deletedIds));
+        }
+        return deletedRows;
+    }
+
+    /**
+     * The unique index on employees.email is the only duplicate check on single-row writes, so its
+     * violation becomes a conflict; any other integrity violation is rethrown untouched.
+     */
+    private static RuntimeException translateEmailViolation(DataIntegrityViolationException e, String conflictMessage) {
+        String cause = String.valueOf(e.getMostSpecificCause().getMessage()).toLowerCase();
+        if (cause.contains(Employee.EMAIL_CONSTRAINT)) {
+            return new ResourceConflictException(conflictMessage, e);
+        }
+        return e;
+    }
+
+    private static List<List<Employee>> chunks(List<Employee> employees) {
+        List<List<Employee>> chunks = new ArrayList<>();
+        for (int from = 0; from < employees.size(); from += BATCH_SIZE) {
+            chunks.add(employees.subList(from, Math.min(from + BATCH_SIZE, employees.size())));
+        }
+        return chunks;
     }
 }
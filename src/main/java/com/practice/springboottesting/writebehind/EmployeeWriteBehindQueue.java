@@ -0,0 +1,199 @@
+package com.practice.springboottesting.writebehind;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.practice.springboottesting.exception.ResourceConflictException;
+import com.practice.springboottesting.model.Employee;
+import com.practice.springboottesting.service.EmployeeService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.context.WebServerGracefulShutdownLifecycle;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Opt-in (employees.write-behind.enabled=true) queue for employee creates. Requests only pay for an offer to a
+ * bounded in-memory queue; a single writer thread drains it in batches through
+ * {@link EmployeeService#saveAll(List)}. A full queue rejects new work instead of growing.
+ *
+ * <p>Accepted but unwritten employees live only in memory: stop() drains the queue, but a crash loses them.
+ * The queue stops after the web server, so no request is still submitting while it drains. Outcomes are kept
+ * for employees.write-behind.status-retention, and at most employees.write-behind.status-max-size of them, so
+ * clients can poll for them.
+ */
+@Component
+@ConditionalOnProperty(name = "employees.write-behind.enabled", havingValue = "true")
+public class EmployeeWriteBehindQueue implements SmartLifecycle {
+    private static final Logger log = LoggerFactory.getLogger(EmployeeWriteBehindQueue.class);
+
+    private static final long POLL_TIMEOUT_MILLIS = 100;
+
+    /** Below the web server's graceful shutdown and start/stop phases: started before it, stopped after it. */
+    static final int PHASE = WebServerGracefulShutdownLifecycle.SMART_LIFECYCLE_PHASE - 2048;
+
+    private final EmployeeService employeeService;
+
+    private final BlockingQueue<PendingEmployee> queue;
+
+    private final int batchSize;
+
+    private final Cache<UUID, WriteStatus> statuses;
+
+    private final Counter rejectedSubmissions;
+
+    private volatile boolean running;
+
+    private Thread writer;
+
+    public EmployeeWriteBehindQueue(EmployeeService employeeService, MeterRegistry meterRegistry,
+                                    @Value("${employees.write-behind.capacity:10000}") int capacity,
+                                    @Value("${employees.write-behind.batch-size:50}") int batchSize,
+                                    @Value("${employees.write-behind.status-retention:10m}") Duration statusRetention,
+                                    @Value("${employees.write-behind.status-max-size:100000}") long statusMaxSize) {
+        this.employeeService = employeeService;
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.batchSize = batchSize;
+        // never below the capacity, so a pending status is not evicted while its employee is still queued
+        this.statuses = Caffeine.newBuilder()
+                .maximumSize(Math.max(statusMaxSize, capacity))
+                .expireAfterWrite(statusRetention)
+                .build();
+        Gauge.builder("employee.write_behind.queue.size", queue, BlockingQueue::size).register(meterRegistry);
+        this.rejectedSubmissions = Counter.builder("employee.write_behind.rejected").register(meterRegistry);
+    }
+
+    /**
+     * @return the tracking id of the accepted employee, or empty when the queue is full or not running
+     */
+    public Optional<UUID> submit(Employee employee) {
+        if (!running) {
+            rejectedSubmissions.increment();
+            return Optional.empty();
+        }
+        UUID trackingId = UUID.randomUUID();
+        // recorded first, so the writer can never complete an employee that has no status yet
+        statuses.put(trackingId, WriteStatus.pending());
+        PendingEmployee pending = new PendingEmployee(trackingId, employee);
+        // stop() may have begun since the check above; taking the employee back is what tells whether the
+        // draining writer has already seen it, since the writer does not look at the queue again once it is empty
+        if (!queue.offer(pending) || (!running && queue.remove(pending))) {
+            statuses.invalidate(trackingId);
+            rejectedSubmissions.increment();
+            return Optional.empty();
+        }
+        return Optional.of(trackingId);
+    }
+
+    public Optional<WriteStatus> getStatus(UUID trackingId) {
+        return Optional.ofNullable(statuses.getIfPresent(trackingId));
+    }
+
+    @Override
+    public void start() {
+        acceptSubmissions();
+        writer = new Thread(this::writeUntilStopped, "employee-write-behind");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        try {
+            writer.join(TimeUnit.SECONDS.toMillis(30));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (!queue.isEmpty()) {
+            log.warn("Stopped with {} employees still queued", queue.size());
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public int getPhase() {
+        return PHASE;
+    }
+
+    /** Lets tests submit without a writer thread and drive {@link #writeNextBatch(long)} themselves. */
+    void acceptSubmissions() {
+        running = true;
+    }
+
+    private void writeUntilStopped() {
+        try {
+            while (running || !queue.isEmpty()) {
+                writeNextBatch(POLL_TIMEOUT_MILLIS);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Waits up to timeoutMillis for the first employee, then writes it together with whatever else is queued,
+     * up to the batch size.
+     */
+    void writeNextBatch(long timeoutMillis) throws InterruptedException {
+        PendingEmployee first = queue.poll(timeoutMillis, TimeUnit.MILLISECONDS);
+        if (first == null) {
+            return;
+        }
+        List<PendingEmployee> batch = new ArrayList<>(batchSize);
+        batch.add(first);
+        queue.drainTo(batch, batchSize - 1);
+        try {
+            List<Employee> savedEmployees = employeeService.saveAll(batch.stream().map(PendingEmployee::employee).toList());
+            for (int i = 0; i < batch.size(); i++) {
+                statuses.put(batch.get(i).trackingId(), WriteStatus.created(savedEmployees.get(i).getId()));
+            }
+        } catch (RuntimeException e) {
+            // saveAll is all or nothing, so one duplicate email, or one row the database refuses for any other
+            // reason, sends the whole batch down the single-row path, where only that row fails
+            if (!(e instanceof ResourceConflictException)) {
+                log.warn("Could not write a batch of {} employees, writing them one by one", batch.size(), e);
+            }
+            batch.forEach(this::writeOne);
+        }
+    }
+
+    private void writeOne(PendingEmployee pending) {
+        try {
+            // the rolled back batch has already assigned ids and versions
+            resetForInsert(pending.employee());
+            statuses.put(pending.trackingId(), WriteStatus.created(employeeService.save(pending.employee()).getId()));
+        } catch (ResourceConflictException e) {
+            statuses.put(pending.trackingId(), WriteStatus.rejected(e.getMessage()));
+        } catch (RuntimeException e) {
+            log.error("Could not write employee {}", pending.trackingId(), e);
+            statuses.put(pending.trackingId(), WriteStatus.failed(e.getMessage()));
+        }
+    }
+
+    private static void resetForInsert(Employee employee) {
+        employee.setId(0);
+        employee.setVersion(null);
+        employee.setUpdatedAt(null);
+    }
+
+    private record PendingEmployee(UUID trackingId, Employee employee) {
+    }
+}
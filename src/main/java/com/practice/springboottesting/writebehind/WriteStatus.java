@@ -0,0 +1,28 @@
+package com.practice.springboottesting.writebehind;
+
+/**
+ * Outcome of an employee accepted by the write-behind queue. employeeId is set once it is CREATED, message once
+ * it is REJECTED (duplicate email) or FAILED (any other error).
+ */
+public record WriteStatus(State state, Long employeeId, String message) {
+
+    public enum State {
+        PENDING, CREATED, REJECTED, FAILED
+    }
+
+    static WriteStatus pending() {
+        return new WriteStatus(State.PENDING, null, null);
+    }
+
+    static WriteStatus created(long employeeId) {
+        return new WriteStatus(State.CREATED, employeeId, null);
+    }
+
+    static WriteStatus rejected(String message) {
+        return new WriteStatus(State.REJECTED, null, message);
+    }
+
+    static WriteStatus failed(String message) {
+        return new WriteStatus(State.FAILED, null, message);
+    }
+}
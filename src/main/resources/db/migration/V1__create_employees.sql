@@ -0,0 +1,14 @@
+-- matches the Employee mapping; "if not exists" lets databases created by ddl-auto=update be baselined at version 0
+create sequence if not exists employees_seq start with 1 increment by 50;
+
+create table if not exists employees (
+    id bigint not null,
+    first_name varchar(255) not null,
+    last_name varchar(255) not null,
+    email varchar(255) not null,
+    version bigint not null,
+    constraint employees_pkey primary key (id),
+    constraint uk_employees_email unique (email)
+);
+
+create index if not exists idx_employees_last_name_first_name on employees (last_name, first_name);
@@ -0,0 +1 @@
+alter table employees add column if not exists updated_at timestamp(6) with time zone not null default current_timestamp;
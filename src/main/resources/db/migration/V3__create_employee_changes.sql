@@ -0,0 +1,10 @@
+-- outbox for the change stream; seq is the position consumers resume from
+create table if not exists employee_changes (
+    seq bigint generated by default as identity,
+    change_type varchar(16) not null,
+    payload text not null,
+    recorded_at timestamp(6) with time zone not null,
+    constraint employee_changes_pkey primary key (seq)
+);
+
+create index if not exists idx_employee_changes_recorded_at on employee_changes (recorded_at);
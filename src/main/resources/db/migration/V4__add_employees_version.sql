@@ -0,0 +1,2 @@
+-- tables created by ddl-auto=update before optimistic locking have no version column; existing rows start at 0
+alter table employees add column if not exists version bigint not null default 0;
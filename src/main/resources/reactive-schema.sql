@@ -0,0 +1,19 @@
+create sequence if not exists employees_seq start with 1 increment by 50;
+
+create table if not exists employees (
+    id bigint not null primary key,
+    first_name varchar(255) not null,
+    last_name varchar(255) not null,
+    email varchar(255) not null constraint uk_employees_email unique,
+    version bigint not null,
+    updated_at timestamp(6) with time zone not null default current_timestamp
+);
+
+create index if not exists idx_employees_last_name_first_name on employees (last_name, first_name);
+
+create table if not exists employee_changes (
+    seq bigint generated by default as identity primary key,
+    change_type varchar(16) not null,
+    payload text not null,
+    recorded_at timestamp(6) with time zone not null default current_timestamp
+);
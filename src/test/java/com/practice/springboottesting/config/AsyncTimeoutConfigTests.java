@@ -0,0 +1,77 @@
+package com.practice.springboottesting.config;
+
+import com.practice.springboottesting.model.Employee;
+import com.practice.springboottesting.service.EmployeeService;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.willAnswer;
+
+/**
+ * Exports against a real server, so what a client receives when a download outlasts the async timeout is what
+ * Tomcat puts on the wire.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.mvc.async.request-timeout=500ms",
+        "employees.rate-limit.enabled=false"
+})
+public class AsyncTimeoutConfigTests {
+
+    @LocalServerPort
+    private int port;
+
+    @MockBean
+    private EmployeeService employeeService;
+
+    private final HttpClient httpClient = HttpClient.newHttpClient();
+
+    @Test
+    public void givenExportOutlastingTimeoutAfterFirstRows_whenDownload_thenReportIncompleteTransfer() throws Exception {
+        // Given a dump that stalls past the timeout after its first rows
+        willAnswer(invocation -> {
+            Consumer<Employee> action = invocation.getArgument(0);
+            for (int i = 0; i < 500; i++) {
+                action.accept(Employee.builder().id(i).firstName("Tom").lastName("lin").email("lin" + i + "@gmail.com").build());
+            }
+            Thread.sleep(5000);
+            return null;
+        }).given(employeeService).forEachEmployee(any());
+
+        // When / Then the body ends without its final chunk instead of looking complete
+        assertThatThrownBy(() -> export()).isInstanceOf(IOException.class);
+    }
+
+    @Test
+    public void givenExportFinishingInTime_whenDownload_thenReturnWholeBody() throws Exception {
+        // Given
+        willAnswer(invocation -> {
+            Consumer<Employee> action = invocation.getArgument(0);
+            action.accept(Employee.builder().id(1L).firstName("Tom").lastName("lin").email("lin@gmail.com").build());
+            return null;
+        }).given(employeeService).forEachEmployee(any());
+
+        // When
+        HttpResponse<String> response = export();
+
+        // Then
+        assertThat(response.statusCode()).isEqualTo(200);
+        assertThat(response.body()).startsWith("{\"id\":1,").endsWith("}\n");
+    }
+
+    private HttpResponse<String> export() throws IOException, InterruptedException {
+        return httpClient.send(HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/employees/export?format=ndjson")).build(),
+                HttpResponse.BodyHandlers.ofString());
+    }
+}
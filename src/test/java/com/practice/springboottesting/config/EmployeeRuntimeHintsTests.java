@@ -0,0 +1,58 @@
+package com.practice.springboottesting.config;
+
+import com.practice.springboottesting.model.Employee;
+import com.practice.springboottesting.model.EmployeeCollectionVersion;
+import com.practice.springboottesting.model.EmployeeVersion;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.predicate.RuntimeHintsPredicates;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class EmployeeRuntimeHintsTests {
+
+    private RuntimeHints hints;
+
+    @BeforeEach
+    public void setup() {
+        hints = new RuntimeHints();
+        new EmployeeRuntimeHints().registerHints(hints, getClass().getClassLoader());
+    }
+
+    @Test
+    public void givenHints_whenMapperBindsEmployee_thenLombokAccessorsAreReachable() throws Exception {
+        // Given
+        Method getter = Employee.class.getMethod("getEmail");
+        Method setter = Employee.class.getMethod("setEmail", String.class);
+
+        // When
+        boolean getterReachable = RuntimeHintsPredicates.reflection().onMethod(getter).test(hints);
+        boolean setterReachable = RuntimeHintsPredicates.reflection().onMethod(setter).test(hints);
+
+        // Then
+        assertThat(getterReachable).isTrue();
+        assertThat(setterReachable).isTrue();
+    }
+
+    @Test
+    public void givenHints_whenJpqlConstructorExpressionRuns_thenRecordConstructorsAreInvocable() throws Exception {
+        // Given
+        Constructor<EmployeeVersion> version = EmployeeVersion.class.getDeclaredConstructor(long.class, Instant.class);
+        Constructor<EmployeeCollectionVersion> collectionVersion =
+                EmployeeCollectionVersion.class.getDeclaredConstructor(long.class);
+
+        // When
+        boolean versionInvocable = RuntimeHintsPredicates.reflection().onConstructor(version).invoke().test(hints);
+        boolean collectionVersionInvocable =
+                RuntimeHintsPredicates.reflection().onConstructor(collectionVersion).invoke().test(hints);
+
+        // Then
+        assertThat(versionInvocable).isTrue();
+        assertThat(collectionVersionInvocable).isTrue();
+    }
+}
@@ -0,0 +1,99 @@
+package com.practice.springboottesting.config;
+
+import com.practice.springboottesting.model.Employee;
+import com.practice.springboottesting.model.EmployeeVersion;
+import com.practice.springboottesting.model.EmployeeView;
+import com.practice.springboottesting.service.EmployeeService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The primary and the replica are two unrelated in-memory databases, so the data a call sees tells which one
+ * served it. The replica schema exists before startup, as it would when replicated from the primary.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:primary;DB_CLOSE_DELAY=-1",
+        "employees.datasource.replica.url=jdbc:h2:mem:replica;DB_CLOSE_DELAY=-1;INIT=RUNSCRIPT FROM 'classpath:replica-schema.sql'"
+})
+public class ReadReplicaConfigTests {
+
+    @Autowired
+    private EmployeeService employeeService;
+
+    @Autowired
+    @Qualifier("primaryDataSource")
+    private DataSource primaryDataSource;
+
+    @Autowired
+    @Qualifier("replicaDataSource")
+    private DataSource replicaDataSource;
+
+    private JdbcTemplate primary;
+
+    private JdbcTemplate replica;
+
+    @BeforeEach
+    public void setup() {
+        primary = new JdbcTemplate(primaryDataSource);
+        replica = new JdbcTemplate(replicaDataSource);
+        replica.update("insert into employees (id, first_name, last_name, email, version) values (1000, 'Rita', 'Replica', 'rita@replica.com', 0)");
+    }
+
+    @AfterEach
+    public void cleanup() {
+        primary.update("delete from employees");
+        replica.update("delete from employees");
+    }
+
+    @Test
+    public void givenReplica_whenWriteThenRead_thenWriteToPrimaryAndReadFromReplica() {
+        // Given
+        Employee employee = Employee.builder()
+                .firstName("Paul")
+                .lastName("Primary")
+                .email("paul@primary.com")
+                .build();
+
+        // When
+        Employee savedEmployee = employeeService.save(employee);
+        List<EmployeeView> readEmployees = employeeService.getAllEmployees();
+
+        // Then
+        assertThat(readEmployees).extracting(EmployeeView::email).containsExactly("rita@replica.com");
+        assertThat(primary.queryForObject("select email from employees where id = ?", String.class, savedEmployee.getId()))
+                .isEqualTo("paul@primary.com");
+        assertThat(replica.queryForObject("select count(*) from employees where email = 'paul@primary.com'", Integer.class))
+                .isZero();
+    }
+
+    @Test
+    public void givenReplica_whenGetEmployeeByIdAndVersion_thenReadFromPrimary() {
+        // Given an employee written to the primary that the replica does not have yet
+        Employee savedEmployee = employeeService.save(Employee.builder()
+                .firstName("Paul")
+                .lastName("Primary")
+                .email("paul@primary.com")
+                .build());
+
+        // When
+        Optional<Employee> cachedEmployee = employeeService.getEmployeeById(savedEmployee.getId());
+        Optional<EmployeeVersion> version = employeeService.getEmployeeVersion(savedEmployee.getId());
+        Optional<Employee> replicaOnlyEmployee = employeeService.getEmployeeById(1000L);
+
+        // Then
+        assertThat(cachedEmployee).get().extracting(Employee::getEmail).isEqualTo("paul@primary.com");
+        assertThat(version).isPresent();
+        assertThat(replicaOnlyEmployee).isEmpty();
+    }
+}
@@ -0,0 +1,82 @@
+package com.practice.springboottesting.controller;
+
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+import com.practice.springboottesting.model.Employee;
+import com.practice.springboottesting.repository.EmployeeRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+public class EmployeeControllerEncodingTests {
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    @BeforeEach
+    public void setup() {
+        List<Employee> employees = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            employees.add(Employee.builder()
+                    .firstName("First" + i)
+                    .lastName("Last" + i)
+                    .email("employee" + i + "@example.com")
+                    .build());
+        }
+        employeeRepository.saveAll(employees);
+    }
+
+    @AfterEach
+    public void cleanup() {
+        employeeRepository.deleteAllInBatch();
+    }
+
+    @Test
+    public void givenLargeList_whenGetAllEmployeesAcceptingGzip_thenReturnCompressedJson() throws IOException {
+        // Given
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.ACCEPT_ENCODING, "gzip");
+
+        // When
+        ResponseEntity<byte[]> response = restTemplate.exchange("/api/employees/", HttpMethod.GET, new HttpEntity<>(headers), byte[].class);
+
+        // Then
+        assertThat(response.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING)).isEqualTo("gzip");
+        try (GZIPInputStream json = new GZIPInputStream(new ByteArrayInputStream(response.getBody()))) {
+            assertThat(new String(json.readAllBytes())).startsWith("[{").contains("employee99@example.com");
+        }
+    }
+
+    @Test
+    public void givenSmileAccept_whenGetAllEmployees_thenReturnSmileEncodedList() throws IOException {
+        // Given
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.ACCEPT, "application/x-jackson-smile");
+
+        // When
+        ResponseEntity<byte[]> response = restTemplate.exchange("/api/employees/", HttpMethod.GET, new HttpEntity<>(headers), byte[].class);
+
+        // Then
+        assertThat(response.getHeaders().getContentType()).hasToString("application/x-jackson-smile");
+        Employee[] employees = SmileMapper.builder().findAndAddModules().build().readValue(response.getBody(), Employee[].class);
+        assertThat(employees).hasSize(100);
+    }
+}
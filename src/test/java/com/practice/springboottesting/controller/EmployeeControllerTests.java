@@ -2,9 +2,19 @@ package com.practice.springboottesting.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.github.javafaker.Faker;
+import com.practice.springboottesting.event.EmployeeChangeFeed;
+import com.practice.springboottesting.importer.EmployeeImporter;
+import com.practice.springboottesting.exception.ResourceConflictException;
+import com.practice.springboottesting.exception.StaleVersionException;
 import com.practice.springboottesting.model.Employee;
+import com.practice.springboottesting.model.EmployeeCollectionVersion;
+import com.practice.springboottesting.model.EmployeeLookup;
+import com.practice.springboottesting.model.EmployeeSummary;
+import com.practice.springboottesting.model.EmployeeVersion;
+import com.practice.springboottesting.model.EmployeeView;
 import com.practice.springboottesting.service.EmployeeService;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.hamcrest.CoreMatchers.is;
 
 import org.junit.jupiter.api.BeforeEach;
@@ -15,6 +25,9 @@ import static org.mockito.ArgumentMatchers.*;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.annotation.DirtiesContext;
 import org.springframework.test.web.servlet.MockMvc;
@@ -27,10 +40,13 @@ import static org.mockito.BDDMockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 
 
+import java.time.Instant;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Locale;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
 
 @WebMvcTest
 public class EmployeeControllerTests {
@@ -41,6 +57,13 @@ public class EmployeeControllerTests {
     @MockBean
     private EmployeeService employeeService;
 
+    // loaded with the other controllers, covered by EmployeeChangeFeedTests and EmployeeImporterTests
+    @MockBean
+    private EmployeeChangeFeed changeFeed;
+
+    @MockBean
+    private EmployeeImporter importer;
+
     @Autowired
     private ObjectMapper objectMapper;
 
@@ -93,13 +116,112 @@ public class EmployeeControllerTests {
                 .andExpect(jsonPath("$.email", is(employee.getEmail())));
     }
 
+    @Test
+    public void givenExistingEmail_whenCreateEmployee_thenReturn409() throws Exception {
+        // Given
+        given(employeeService.save(any(Employee.class)))
+                .willThrow(new ResourceConflictException("Employee already exist with given email:" + employee.getEmail()));
+
+        // When
+        ResultActions response = mockMvc.perform(post(serviceUrl)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(employee)));
+
+        // Then
+        response.andDo(print())
+                .andExpect(status().isConflict());
+    }
+
+    @Test
+    public void givenListOfEmployees_whenCreateEmployees_thenReturnSavedEmployees() throws Exception {
+        // Given
+        List<Employee> employees = getListOfNewEmployees(3);
+        given(employeeService.saveAll(anyList())).willAnswer((invocation) -> invocation.getArgument(0));
+
+        // When
+        ResultActions response = mockMvc.perform(post(serviceUrl + "batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(employees)));
+
+        // Then
+        response.andDo(print())
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.size()", is(employees.size())))
+                .andExpect(jsonPath("$[2].email", is(employees.get(2).getEmail())));
+    }
+
+    @Test
+    public void givenNdjsonEmployees_whenCreateEmployees_thenReturnCreatedCount() throws Exception {
+        // Given
+        List<Employee> employees = getListOfNewEmployees(3);
+        StringBuilder ndjson = new StringBuilder();
+        for (Employee newEmployee : employees) {
+            ndjson.append(objectMapper.writeValueAsString(newEmployee)).append('\n');
+        }
+        given(employeeService.saveAll(anyList())).willAnswer((invocation) -> new ArrayList<>(invocation.getArgument(0)));
+
+        // When
+        ResultActions response = mockMvc.perform(post(serviceUrl + "batch")
+                .contentType(EmployeeController.APPLICATION_NDJSON_VALUE)
+                .content(ndjson.toString()));
+
+        // Then
+        response.andDo(print())
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.created", is(employees.size())));
+        verify(employeeService, times(1)).saveAll(anyList());
+    }
+
+    @Test
+    public void givenConflictInSecondChunk_whenCreateEmployeesFromNdjson_thenReturnCreatedCountAndFailedLine() throws Exception {
+        // Given 1500 lines, where line 1201 repeats a stored email
+        StringBuilder ndjson = new StringBuilder();
+        for (int i = 1; i <= 1500; i++) {
+            ndjson.append(objectMapper.writeValueAsString(Employee.builder()
+                    .firstName("Tom").lastName("lin").email("lin" + i + "@gmail.com").build())).append('\n');
+        }
+        given(employeeService.saveAll(anyList()))
+                .willAnswer((invocation) -> new ArrayList<>(invocation.getArgument(0)))
+                .willThrow(new ResourceConflictException("Employee already exist with given emails:[lin1201@gmail.com]"));
+        given(employeeService.findExistingEmails(anyCollection())).willReturn(Set.of("lin1201@gmail.com"));
+
+        // When
+        ResultActions response = mockMvc.perform(post(serviceUrl + "batch")
+                .contentType(EmployeeController.APPLICATION_NDJSON_VALUE)
+                .content(ndjson.toString()));
+
+        // Then the first chunk stays saved, and the client learns where to resume
+        response.andExpect(status().isConflict())
+                .andExpect(jsonPath("$.created", is(1000)))
+                .andExpect(jsonPath("$.failedLine", is(1201)));
+        verify(employeeService, times(2)).saveAll(anyList());
+    }
+
+    @Test
+    public void givenMalformedLine_whenCreateEmployeesFromNdjson_thenReturn400WithFailedLine() throws Exception {
+        // Given
+        String ndjson = objectMapper.writeValueAsString(employee) + "\n{\"firstName\": \n";
+
+        // When
+        ResultActions response = mockMvc.perform(post(serviceUrl + "batch")
+                .contentType(EmployeeController.APPLICATION_NDJSON_VALUE)
+                .content(ndjson));
+
+        // Then
+        response.andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.created", is(0)))
+                .andExpect(jsonPath("$.failedLine", is(2)));
+        verify(employeeService, never()).saveAll(anyList());
+    }
+
     @Test
     public void givenListOfEmployees_whenGetAllEmployees_thenReturnEmployeeList() throws Exception {
         // Given
         int numberEmployees = 4;
         List<Employee> employees = getListOfNewEmployees(numberEmployees);
 
-        given(employeeService.getAllEmployees()).willReturn(employees);
+        given(employeeService.getEmployeesVersion()).willReturn(new EmployeeCollectionVersion(1000));
+        given(employeeService.getAllEmployees()).willReturn(employees.stream().map(EmployeeControllerTests::view).toList());
 
         // When
         ResultActions response = mockMvc.perform(get(serviceUrl));
@@ -107,7 +229,233 @@ public class EmployeeControllerTests {
         // Then
         response.andExpect(status().isOk())
                 .andDo(print())
-                .andExpect(jsonPath("$.size()", is(employees.size())));
+                .andExpect(header().string(HttpHeaders.ETAG, "W/\"1000\""))
+                .andExpect(jsonPath("$.size()", is(employees.size())))
+                .andExpect(jsonPath("$[0].email", is(employees.get(0).getEmail())));
+    }
+
+    @Test
+    public void givenUnchangedCollectionETag_whenGetAllEmployees_thenReturn304WithoutLoadingList() throws Exception {
+        // Given
+        given(employeeService.getEmployeesVersion()).willReturn(new EmployeeCollectionVersion(1000));
+
+        // When
+        ResultActions response = mockMvc.perform(get(serviceUrl).header(HttpHeaders.IF_NONE_MATCH, "W/\"1000\""));
+
+        // Then
+        response.andExpect(status().isNotModified())
+                .andDo(print());
+        verify(employeeService, never()).getAllEmployees();
+    }
+
+    @Test
+    public void givenCursorAndLimit_whenGetEmployeesPage_thenReturnEmployeesAfterCursor() throws Exception {
+        // Given
+        long afterId = 10L;
+        int limit = 3;
+        List<Employee> employees = getListOfNewEmployees(limit);
+
+        given(employeeService.getEmployeesAfter(afterId, limit)).willReturn(employees.stream().map(EmployeeControllerTests::view).toList());
+
+        // When
+        ResultActions response = mockMvc.perform(get(serviceUrl)
+                .param("after", String.valueOf(afterId))
+                .param("limit", String.valueOf(limit)));
+
+        // Then
+        response.andExpect(status().isOk())
+                .andDo(print())
+                .andExpect(jsonPath("$.size()", is(limit)));
+        verify(employeeService, never()).getAllEmployees();
+    }
+
+    @Test
+    public void givenName_whenSearchEmployees_thenReturnSliceOfSummaries() throws Exception {
+        // Given
+        EmployeeSummary summary = new EmployeeSummary(1L, employee.getFirstName(), employee.getLastName(), employee.getEmail());
+        given(employeeService.searchEmployees(employee.getLastName(), employee.getFirstName(), 1, 5))
+                .willReturn(new SliceImpl<>(List.of(summary), PageRequest.of(1, 5), true));
+
+        // When
+        ResultActions response = mockMvc.perform(get(serviceUrl + "search")
+                .param("lastName", employee.getLastName())
+                .param("firstName", employee.getFirstName())
+                .param("page", "1")
+                .param("size", "5"));
+
+        // Then
+        response.andExpect(status().isOk())
+                .andDo(print())
+                .andExpect(jsonPath("$.content.size()", is(1)))
+                .andExpect(jsonPath("$.content[0].email", is(employee.getEmail())))
+                .andExpect(jsonPath("$.last", is(false)));
+    }
+
+    @Test
+    public void givenQuery_whenSuggestEmployees_thenReturnSummaries() throws Exception {
+        // Given
+        EmployeeSummary summary = new EmployeeSummary(1L, employee.getFirstName(), employee.getLastName(), employee.getEmail());
+        given(employeeService.suggestEmployees("jo", 10)).willReturn(List.of(summary));
+
+        // When
+        ResultActions response = mockMvc.perform(get(serviceUrl + "suggest").param("q", "jo"));
+
+        // Then
+        response.andExpect(status().isOk())
+                .andDo(print())
+                .andExpect(jsonPath("$.size()", is(1)))
+                .andExpect(jsonPath("$[0].lastName", is(employee.getLastName())));
+    }
+
+    @Test
+    public void givenIds_whenGetEmployeesByIds_thenReturnFoundEmployeesAndMissingIds() throws Exception {
+        // Given
+        employee.setId(3L);
+        given(employeeService.getEmployeesByIds(new long[]{3, 99})).willReturn(new EmployeeLookup(List.of(employee), new long[]{99}));
+
+        // When
+        ResultActions response = mockMvc.perform(get(serviceUrl).param("ids", "3,99"));
+
+        // Then
+        response.andExpect(status().isOk())
+                .andDo(print())
+                .andExpect(jsonPath("$.employees.size()", is(1)))
+                .andExpect(jsonPath("$.employees[0].email", is(employee.getEmail())))
+                .andExpect(jsonPath("$.missingIds[0]", is(99)));
+        verify(employeeService, never()).getAllEmployees();
+    }
+
+    @Test
+    public void givenIdsAndLimit_whenGetEmployees_thenReturn400() throws Exception {
+        // When
+        ResultActions response = mockMvc.perform(get(serviceUrl)
+                .param("ids", "1")
+                .param("limit", "5"));
+
+        // Then
+        response.andExpect(status().isBadRequest());
+        verify(employeeService, never()).getEmployeesByIds(any());
+        verify(employeeService, never()).getEmployeesAfter(anyLong(), anyInt());
+    }
+
+    @Test
+    public void givenIdsInBody_whenLookupEmployees_thenReturnFoundEmployees() throws Exception {
+        // Given
+        employee.setId(3L);
+        given(employeeService.getEmployeesByIds(new long[]{3})).willReturn(new EmployeeLookup(List.of(employee), new long[0]));
+
+        // When
+        ResultActions response = mockMvc.perform(post(serviceUrl + "lookup")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("[3]"));
+
+        // Then
+        response.andExpect(status().isOk())
+                .andDo(print())
+                .andExpect(jsonPath("$.employees[0].id", is(3)))
+                .andExpect(jsonPath("$.missingIds.size()", is(0)));
+    }
+
+    @Test
+    public void givenTooManyIds_whenLookupEmployees_thenReturn400() throws Exception {
+        // Given
+        long[] ids = new long[EmployeeController.MAX_LOOKUP_IDS + 1];
+
+        // When
+        ResultActions response = mockMvc.perform(post(serviceUrl + "lookup")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(ids)));
+
+        // Then
+        response.andExpect(status().isBadRequest());
+        verify(employeeService, never()).getEmployeesByIds(any());
+    }
+
+    @Test
+    public void givenListOfEmployees_whenStreamAllEmployees_thenReturnJsonArray() throws Exception {
+        // Given
+        int numberEmployees = 5;
+        List<Employee> employees = getListOfNewEmployees(numberEmployees);
+
+        willAnswer(invocation -> {
+            Consumer<Employee> action = invocation.getArgument(0);
+            employees.forEach(action);
+            return null;
+        }).given(employeeService).forEachEmployee(any());
+
+        // When
+        ResultActions response = mockMvc.perform(get(serviceUrl).param("stream", "true"));
+
+        // Then
+        mockMvc.perform(asyncDispatch(response.andExpect(request().asyncStarted()).andReturn()))
+                .andExpect(status().isOk())
+                .andDo(print())
+                .andExpect(jsonPath("$.size()", is(numberEmployees)))
+                .andExpect(jsonPath("$[0].email", is(employees.get(0).getEmail())));
+    }
+
+    @Test
+    public void givenListOfEmployees_whenExportAsCsv_thenStreamHeaderAndQuotedRows() throws Exception {
+        // Given
+        List<Employee> employees = getListOfNewEmployees(2);
+        employees.get(0).setId(1L);
+        employees.get(0).setLastName("Lin, Jr");
+        employees.get(1).setId(2L);
+        willAnswer(invocation -> {
+            Consumer<Employee> action = invocation.getArgument(0);
+            employees.forEach(action);
+            return null;
+        }).given(employeeService).forEachEmployee(any());
+
+        // When
+        ResultActions response = mockMvc.perform(get(serviceUrl + "export").param("format", "csv"));
+
+        // Then
+        String csv = mockMvc.perform(asyncDispatch(response.andExpect(request().asyncStarted()).andReturn()))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(EmployeeController.TEXT_CSV))
+                .andExpect(header().string(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"employees.csv\""))
+                .andReturn().getResponse().getContentAsString();
+        assertThat(csv.lines()).containsExactly(
+                "id,firstName,lastName,email,version,updatedAt",
+                "1," + employees.get(0).getFirstName() + ",\"Lin, Jr\"," + employees.get(0).getEmail() + ",,",
+                "2," + employees.get(1).getFirstName() + "," + employees.get(1).getLastName() + "," + employees.get(1).getEmail() + ",,");
+    }
+
+    @Test
+    public void givenListOfEmployees_whenExportAsNdjson_thenStreamOneEmployeePerLine() throws Exception {
+        // Given
+        List<Employee> employees = getListOfNewEmployees(3);
+        willAnswer(invocation -> {
+            Consumer<Employee> action = invocation.getArgument(0);
+            employees.forEach(action);
+            return null;
+        }).given(employeeService).forEachEmployee(any());
+
+        // When
+        ResultActions response = mockMvc.perform(get(serviceUrl + "export").param("format", "ndjson"));
+
+        // Then
+        String ndjson = mockMvc.perform(asyncDispatch(response.andExpect(request().asyncStarted()).andReturn()))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(EmployeeController.APPLICATION_NDJSON_VALUE))
+                .andReturn().getResponse().getContentAsString();
+        assertThat(ndjson).endsWith("\n");
+        List<String> lines = ndjson.lines().toList();
+        assertThat(lines).hasSize(employees.size());
+        for (int i = 0; i < lines.size(); i++) {
+            assertThat(objectMapper.readValue(lines.get(i), Employee.class).getEmail()).isEqualTo(employees.get(i).getEmail());
+        }
+    }
+
+    @Test
+    public void givenUnknownFormat_whenExport_thenReturn400() throws Exception {
+        // When
+        ResultActions response = mockMvc.perform(get(serviceUrl + "export").param("format", "xml"));
+
+        // Then
+        response.andExpect(status().isBadRequest());
+        verify(employeeService, never()).forEachEmployee(any());
     }
 
     @Test
@@ -127,6 +475,44 @@ public class EmployeeControllerTests {
                 .andExpect(jsonPath("$.email", is(employee.getEmail())));
     }
 
+    @Test
+    public void givenUnchangedETag_whenGetEmployeeById_thenReturn304WithoutLoadingEmployee() throws Exception {
+        // Given
+        long employeeId = 1L;
+        given(employeeService.getEmployeeVersion(employeeId)).willReturn(Optional.of(new EmployeeVersion(3L, Instant.now())));
+
+        // When
+        ResultActions response = mockMvc.perform(get(serviceUrl + "{id}/", employeeId)
+                .header(HttpHeaders.IF_NONE_MATCH, "\"3\""));
+
+        // Then
+        response.andExpect(status().isNotModified())
+                .andDo(print())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"3\""));
+        verify(employeeService, never()).getEmployeeById(anyLong());
+    }
+
+    @Test
+    public void givenChangedETag_whenGetEmployeeById_thenReturnEmployeeWithCurrentETag() throws Exception {
+        // Given
+        employee.setId(1L);
+        employee.setVersion(4L);
+        employee.setUpdatedAt(Instant.now());
+        given(employeeService.getEmployeeVersion(employee.getId())).willReturn(Optional.of(new EmployeeVersion(4L, employee.getUpdatedAt())));
+        given(employeeService.getEmployeeById(employee.getId())).willReturn(Optional.of(employee));
+
+        // When
+        ResultActions response = mockMvc.perform(get(serviceUrl + "{id}/", employee.getId())
+                .header(HttpHeaders.IF_NONE_MATCH, "\"3\""));
+
+        // Then
+        response.andExpect(status().isOk())
+                .andDo(print())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"4\""))
+                .andExpect(header().exists(HttpHeaders.LAST_MODIFIED))
+                .andExpect(jsonPath("$.email", is(employee.getEmail())));
+    }
+
     @Test
     public void givenInvalidEmployeeId_whenGetEmployeeById_thenReturnEmpty() throws Exception {
         // Given
@@ -169,6 +555,26 @@ public class EmployeeControllerTests {
 
     }
 
+    @Test
+    public void givenStaleIfMatch_whenUpdateEmployee_thenReturn412() throws Exception {
+        // Given
+        long employeeId = 1L;
+        employee.setId(employeeId);
+        employee.setVersion(2L);
+        given(employeeService.getEmployeeById(employeeId)).willReturn(Optional.of(employee));
+
+        // When
+        ResultActions response = mockMvc.perform(put(serviceUrl + "{id}/", employeeId)
+                .header(HttpHeaders.IF_MATCH, "\"1\"")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(getNewEmployee())));
+
+        // Then
+        response.andExpect(status().isPreconditionFailed())
+                .andDo(print());
+        verify(employeeService, never()).updateEmployee(any(Employee.class));
+    }
+
     @Test
     public void givenInvalidUpdatedEmployee_whenUpdateEmployee_thenReturn404() throws Exception {
         // Given
@@ -193,13 +599,82 @@ public class EmployeeControllerTests {
                 .andDo(print());
     }
 
+    @Test
+    public void givenEmployeeChanges_whenPatchEmployee_thenReturn204() throws Exception {
+        // Given
+        long employeeId = 1L;
+        Employee changes = Employee.builder().email(employee.getEmail()).build();
+        given(employeeService.patchEmployee(eq(employeeId), any(Employee.class))).willReturn(true);
+
+        // When
+        ResultActions response = mockMvc.perform(patch(serviceUrl + "{id}/", employeeId)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(changes)));
+
+        // Then
+        response.andExpect(status().isNoContent())
+                .andDo(print());
+        verify(employeeService, never()).getEmployeeById(anyLong());
+    }
+
+    @Test
+    public void givenInvalidEmployeeId_whenPatchEmployee_thenReturn404() throws Exception {
+        // Given
+        long employeeId = 1L;
+        given(employeeService.patchEmployee(eq(employeeId), any(Employee.class))).willReturn(false);
+
+        // When
+        ResultActions response = mockMvc.perform(patch(serviceUrl + "{id}/", employeeId)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"firstName\":\"Lin\"}"));
+
+        // Then
+        response.andExpect(status().isNotFound())
+                .andDo(print());
+    }
+
+    @Test
+    public void givenStaleVersion_whenPatchEmployee_thenReturn409() throws Exception {
+        // Given
+        long employeeId = 1L;
+        given(employeeService.patchEmployee(eq(employeeId), any(Employee.class)))
+                .willThrow(new ResourceConflictException("Employee was modified concurrently, id:" + employeeId));
+
+        // When
+        ResultActions response = mockMvc.perform(patch(serviceUrl + "{id}/", employeeId)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"firstName\":\"Lin\",\"version\":3}"));
+
+        // Then
+        response.andExpect(status().isConflict())
+                .andDo(print());
+    }
+
+    @Test
+    public void givenStaleIfMatch_whenPatchEmployee_thenReturn412() throws Exception {
+        // Given
+        long employeeId = 1L;
+        given(employeeService.patchEmployee(eq(employeeId), argThat(changes -> Long.valueOf(3L).equals(changes.getVersion()))))
+                .willThrow(new StaleVersionException("Employee was modified concurrently, id:" + employeeId));
+
+        // When
+        ResultActions response = mockMvc.perform(patch(serviceUrl + "{id}/", employeeId)
+                .header(HttpHeaders.IF_MATCH, "\"3\"")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"firstName\":\"Lin\"}"));
+
+        // Then
+        response.andExpect(status().isPreconditionFailed())
+                .andDo(print());
+    }
+
     @Test
     public void givenEmployeeId_whenDeleteEmployee_thenReturnStatusCode200() throws Exception {
         // Given
         long employeeId = 1L;
         employee.setId(employeeId);
 
-        willDoNothing().given(employeeService).deleteEmployee(employeeId);
+        given(employeeService.deleteEmployee(employeeId)).willReturn(true);
 
         // When
         ResultActions response = mockMvc.perform(delete(serviceUrl + "{id}/", employeeId));
@@ -210,4 +685,37 @@ public class EmployeeControllerTests {
         verify(employeeService, times(1)).deleteEmployee(employee.getId());
 
     }
+
+    @Test
+    public void givenInvalidEmployeeId_whenDeleteEmployee_thenReturn404() throws Exception {
+        // Given
+        long employeeId = 1L;
+        given(employeeService.deleteEmployee(employeeId)).willReturn(false);
+
+        // When
+        ResultActions response = mockMvc.perform(delete(serviceUrl + "{id}/", employeeId));
+
+        // Then
+        response.andExpect(status().isNotFound())
+                .andDo(print());
+    }
+
+    @Test
+    public void givenEmployeeIds_whenDeleteEmployees_thenReturnDeletedCount() throws Exception {
+        // Given
+        given(employeeService.deleteEmployees(List.of(1L, 2L, 3L))).willReturn(2);
+
+        // When
+        ResultActions response = mockMvc.perform(delete(serviceUrl).param("ids", "1,2,3"));
+
+        // Then
+        response.andExpect(status().isOk())
+                .andDo(print())
+                .andExpect(jsonPath("$.deleted", is(2)));
+    }
+
+    private static EmployeeView view(Employee employee) {
+        return new EmployeeView(employee.getId(), employee.getFirstName(), employee.getLastName(), employee.getEmail(),
+                employee.getVersion(), employee.getUpdatedAt());
+    }
 }
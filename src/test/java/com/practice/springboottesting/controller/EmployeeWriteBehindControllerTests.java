@@ -0,0 +1,120 @@
+package com.practice.springboottesting.controller;
+
+import com.practice.springboottesting.event.EmployeeChangeFeed;
+import com.practice.springboottesting.importer.EmployeeImporter;
+import com.practice.springboottesting.writebehind.EmployeeWriteBehindQueue;
+import com.practice.springboottesting.writebehind.WriteStatus;
+import com.practice.springboottesting.service.EmployeeService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(properties = "employees.write-behind.enabled=true")
+public class EmployeeWriteBehindControllerTests {
+
+    private static final String EMPLOYEE_JSON = "{\"firstName\":\"Tom\",\"lastName\":\"lin\",\"email\":\"lin@gmail.com\"}";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private EmployeeService employeeService;
+
+    // loaded with the other controllers, covered by EmployeeChangeFeedTests and EmployeeImporterTests
+    @MockBean
+    private EmployeeChangeFeed changeFeed;
+
+    @MockBean
+    private EmployeeImporter importer;
+
+    @MockBean
+    private EmployeeWriteBehindQueue writeBehindQueue;
+
+    @Test
+    public void givenPreferAsync_whenCreateEmployee_thenReturn202WithTrackingId() throws Exception {
+        // Given
+        UUID trackingId = UUID.randomUUID();
+        given(writeBehindQueue.submit(any())).willReturn(Optional.of(trackingId));
+
+        // When
+        ResultActions response = mockMvc.perform(post("/api/employees/")
+                .header("Prefer", EmployeeWriteBehindController.PREFER_ASYNC)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(EMPLOYEE_JSON));
+
+        // Then
+        response.andExpect(status().isAccepted())
+                .andDo(print())
+                .andExpect(header().string(HttpHeaders.LOCATION, "/api/employees/requests/" + trackingId + "/"))
+                .andExpect(jsonPath("$.trackingId", is(trackingId.toString())));
+        verify(employeeService, never()).save(any());
+    }
+
+    @Test
+    public void givenFullQueue_whenCreateEmployeeAsync_thenReturn503() throws Exception {
+        // Given
+        given(writeBehindQueue.submit(any())).willReturn(Optional.empty());
+
+        // When
+        ResultActions response = mockMvc.perform(post("/api/employees/")
+                .header("Prefer", EmployeeWriteBehindController.PREFER_ASYNC)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(EMPLOYEE_JSON));
+
+        // Then
+        response.andExpect(status().isServiceUnavailable())
+                .andDo(print())
+                .andExpect(header().exists(HttpHeaders.RETRY_AFTER));
+    }
+
+    @Test
+    public void givenNoPreferHeader_whenCreateEmployee_thenStaySynchronous() throws Exception {
+        // Given
+        given(employeeService.save(any())).willAnswer(invocation -> invocation.getArgument(0));
+
+        // When
+        ResultActions response = mockMvc.perform(post("/api/employees/")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(EMPLOYEE_JSON));
+
+        // Then
+        response.andExpect(status().isCreated())
+                .andDo(print());
+        verify(writeBehindQueue, never()).submit(any());
+    }
+
+    @Test
+    public void givenRejectedEmployee_whenGetWriteStatus_thenReturnRejection() throws Exception {
+        // Given
+        UUID trackingId = UUID.randomUUID();
+        given(writeBehindQueue.getStatus(trackingId))
+                .willReturn(Optional.of(new WriteStatus(WriteStatus.State.REJECTED, null, "Employee already exist")));
+
+        // When
+        ResultActions response = mockMvc.perform(get("/api/employees/requests/{trackingId}/", trackingId));
+
+        // Then
+        response.andExpect(status().isOk())
+                .andDo(print())
+                .andExpect(jsonPath("$.state", is("REJECTED")))
+                .andExpect(jsonPath("$.message", is("Employee already exist")));
+    }
+}
@@ -0,0 +1,119 @@
+package com.practice.springboottesting.event;
+
+import com.practice.springboottesting.model.Employee;
+import com.practice.springboottesting.model.EmployeeChange;
+import com.practice.springboottesting.repository.EmployeeChangeRepository;
+import com.practice.springboottesting.repository.EmployeeRepository;
+import com.practice.springboottesting.service.EmployeeService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "employees.changes.poll-interval=50ms",
+        "employees.changes.settle-delay=0ms"
+})
+public class EmployeeChangeFeedTests {
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Autowired
+    private EmployeeService employeeService;
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    @Autowired
+    private EmployeeChangeRepository changeRepository;
+
+    private long createdSeq;
+
+    @BeforeEach
+    public void setup() {
+        Employee employee = employeeService.save(Employee.builder()
+                .firstName("Tom")
+                .lastName("lin")
+                .email("lin@gmail.com")
+                .build());
+        employee.setFirstName("Tim");
+        employeeService.updateEmployee(employee);
+        employeeService.deleteEmployee(employee.getId());
+        createdSeq = changeRepository.findAll(Sort.by("seq")).get(0).getSeq();
+    }
+
+    @AfterEach
+    public void cleanup() {
+        employeeRepository.deleteAllInBatch();
+        changeRepository.deleteAllInBatch();
+    }
+
+    @Test
+    public void givenWrites_whenStreamChanges_thenReceiveThemInOrder() {
+        // When
+        List<ServerSentEvent<String>> events = streamChanges(webTestClient.get()
+                .uri("/api/employees/changes?since={since}", createdSeq - 1), 3);
+
+        // Then
+        assertThat(events).extracting(ServerSentEvent::event).containsExactly("created", "updated", "deleted");
+        assertThat(events).extracting(ServerSentEvent::id)
+                .containsExactly(String.valueOf(createdSeq), String.valueOf(createdSeq + 1), String.valueOf(createdSeq + 2));
+        assertThat(events.get(0).data()).contains("\"firstName\":\"Tom\"").contains("lin@gmail.com");
+        assertThat(events.get(1).data()).contains("\"firstName\":\"Tim\"");
+    }
+
+    @Test
+    public void givenLastEventId_whenStreamChanges_thenResumeAfterIt() {
+        // When
+        List<ServerSentEvent<String>> events = streamChanges(webTestClient.get()
+                .uri("/api/employees/changes?since=0")
+                .header("Last-Event-ID", String.valueOf(createdSeq + 1)), 1);
+
+        // Then
+        assertThat(events).extracting(ServerSentEvent::event).containsExactly("deleted");
+    }
+
+    @Test
+    public void givenExistingAndUnknownIds_whenDeleteEmployees_thenRecordOnlyExistingOnes() {
+        // Given
+        Employee employee = employeeService.save(Employee.builder()
+                .firstName("Ann")
+                .lastName("lee")
+                .email("lee@gmail.com")
+                .build());
+
+        // When
+        employeeService.deleteEmployees(List.of(employee.getId(), employee.getId() + 1000));
+
+        // Then
+        List<EmployeeChange> changes = changeRepository.findAll(Sort.by("seq"));
+        EmployeeChange lastChange = changes.get(changes.size() - 1);
+        assertThat(lastChange.getType()).isEqualTo(EmployeeChange.Type.DELETED);
+        assertThat(lastChange.getPayload()).isEqualTo("[" + employee.getId() + "]");
+    }
+
+    private static List<ServerSentEvent<String>> streamChanges(WebTestClient.RequestHeadersSpec<?> request, int count) {
+        return request.accept(MediaType.TEXT_EVENT_STREAM)
+                .exchange()
+                .expectStatus().isOk()
+                .returnResult(new ParameterizedTypeReference<ServerSentEvent<String>>() {
+                })
+                .getResponseBody()
+                .filter(event -> event.event() != null)
+                .take(count)
+                .collectList()
+                .block(Duration.ofSeconds(10));
+    }
+}
@@ -0,0 +1,125 @@
+package com.practice.springboottesting.filter;
+
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.context.request.async.CallableProcessingInterceptor;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
+
+public class ConnectionPermitFilterTests {
+
+    @Test
+    public void givenFreePermit_whenFilter_thenPassAndReleasePermit() throws Exception {
+        // Given
+        ConnectionPermitFilter filter = new ConnectionPermitFilter(1, Duration.ofMillis(10));
+        MockFilterChain filterChain = new MockFilterChain();
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // When
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/employees/"), response, filterChain);
+
+        // Then
+        assertThat(filterChain.getRequest()).isNotNull();
+        assertThat(response.getStatus()).isEqualTo(HttpServletResponse.SC_OK);
+        assertThat(filter.availablePermits()).isEqualTo(1);
+    }
+
+    @Test
+    public void givenNoFreePermit_whenFilter_thenReturn503() throws Exception {
+        // Given
+        ConnectionPermitFilter filter = new ConnectionPermitFilter(1, Duration.ofMillis(10));
+        AtomicInteger nestedStatus = new AtomicInteger();
+        MockFilterChain holdingChain = new MockFilterChain(new HttpServlet() {
+            @Override
+            protected void service(HttpServletRequest request, HttpServletResponse response) {
+                // a second request arrives while this one still holds the only permit
+                MockHttpServletResponse nestedResponse = new MockHttpServletResponse();
+                try {
+                    filter.doFilter(new MockHttpServletRequest("GET", "/api/employees/"), nestedResponse, new MockFilterChain());
+                } catch (Exception e) {
+                    throw new IllegalStateException(e);
+                }
+                nestedStatus.set(nestedResponse.getStatus());
+            }
+        });
+
+        // When
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/employees/"), new MockHttpServletResponse(), holdingChain);
+
+        // Then
+        assertThat(nestedStatus.get()).isEqualTo(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+        assertThat(filter.availablePermits()).isEqualTo(1);
+    }
+
+    @Test
+    public void givenAsyncRequest_whenFilterReturns_thenReleasePermitWhileRequestIsOpen() throws Exception {
+        // Given a handler that starts async processing and leaves the response open, like a streaming download
+        ConnectionPermitFilter filter = new ConnectionPermitFilter(1, Duration.ofMillis(10));
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/employees/export");
+        request.setAsyncSupported(true);
+        MockFilterChain asyncChain = new MockFilterChain(new HttpServlet() {
+            @Override
+            protected void service(HttpServletRequest request, HttpServletResponse response) {
+                request.startAsync();
+            }
+        });
+
+        // When
+        filter.doFilter(request, new MockHttpServletResponse(), asyncChain);
+
+        // Then
+        assertThat(request.isAsyncStarted()).isTrue();
+        assertThat(filter.availablePermits()).isEqualTo(1);
+    }
+
+    @Test
+    public void givenAsyncTask_whenInterceptorRunsAroundIt_thenHoldPermitOnlyWhileItRuns() throws Exception {
+        // Given
+        ConnectionPermitFilter filter = new ConnectionPermitFilter(1, Duration.ofMillis(10));
+        CallableProcessingInterceptor interceptor = filter.asyncInterceptor();
+        NativeWebRequest webRequest = new ServletWebRequest(new MockHttpServletRequest("GET", "/api/employees/export"));
+        Callable<Object> task = () -> null;
+
+        // When
+        interceptor.preProcess(webRequest, task);
+        int permitsWhileRunning = filter.availablePermits();
+        Throwable secondTask = catchThrowable(() -> interceptor.preProcess(webRequest, task));
+        interceptor.postProcess(webRequest, task, null);
+
+        // Then
+        assertThat(permitsWhileRunning).isZero();
+        assertThat(secondTask).isInstanceOfSatisfying(ResponseStatusException.class,
+                e -> assertThat(e.getStatusCode()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE));
+        assertThat(filter.availablePermits()).isEqualTo(1);
+    }
+
+    @Test
+    public void givenNoFreePermit_whenSubscribeToChanges_thenPassWithoutPermit() throws Exception {
+        // Given every permit taken, e.g. by queries in flight
+        ConnectionPermitFilter filter = new ConnectionPermitFilter(0, Duration.ofMillis(10));
+        MockFilterChain filterChain = new MockFilterChain();
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // When
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/employees/changes"), response, filterChain);
+
+        // Then
+        assertThat(filterChain.getRequest()).isNotNull();
+        assertThat(response.getStatus()).isEqualTo(HttpServletResponse.SC_OK);
+        assertThat(filter.availablePermits()).isZero();
+    }
+}
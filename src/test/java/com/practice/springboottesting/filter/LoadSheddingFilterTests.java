@@ -0,0 +1,54 @@
+package com.practice.springboottesting.filter;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class LoadSheddingFilterTests {
+
+    private final LoadSheddingFilter filter = new LoadSheddingFilter(
+            Map.of(EndpointClass.FULL_SCAN, new LoadSheddingFilter.Limit(1, 0)), Duration.ofMillis(10), new SimpleMeterRegistry());
+
+    @Test
+    public void givenBusyEndpointClass_whenFilter_thenShedWith503() throws Exception {
+        // Given a full scan holding the only permit
+        AtomicInteger nestedScanStatus = new AtomicInteger();
+        AtomicInteger nestedLookupStatus = new AtomicInteger();
+        MockFilterChain holdingChain = new MockFilterChain(new HttpServlet() {
+            @Override
+            protected void service(HttpServletRequest request, HttpServletResponse response) {
+                nestedScanStatus.set(filterStatus(new MockHttpServletRequest("GET", "/api/employees/")));
+                nestedLookupStatus.set(filterStatus(new MockHttpServletRequest("GET", "/api/employees/1/")));
+            }
+        });
+
+        // When
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/employees/"), new MockHttpServletResponse(), holdingChain);
+
+        // Then another full scan is shed, while lookups have no limit here
+        assertThat(nestedScanStatus.get()).isEqualTo(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+        assertThat(nestedLookupStatus.get()).isEqualTo(HttpServletResponse.SC_OK);
+        assertThat(filter.availablePermits(EndpointClass.FULL_SCAN)).isEqualTo(1);
+    }
+
+    private int filterStatus(MockHttpServletRequest request) {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        try {
+            filter.doFilter(request, response, new MockFilterChain());
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+        return response.getStatus();
+    }
+}
@@ -0,0 +1,151 @@
+package com.practice.springboottesting.filter;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class RateLimitFilterTests {
+
+    private AtomicLong nanoTime;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private RateLimitFilter filter;
+
+    @BeforeEach
+    public void setup() {
+        nanoTime = new AtomicLong();
+        meterRegistry = new SimpleMeterRegistry();
+        // 10 tokens per second, bursts of up to 20
+        filter = new RateLimitFilter(10, 20, RateLimitFilter.remoteAddress(), meterRegistry, nanoTime::get);
+    }
+
+    @Test
+    public void givenBurstUsedUp_whenFilter_thenReturn429UntilTokensRefill() throws Exception {
+        // Given
+        for (int i = 0; i < 20; i++) {
+            assertThat(filter(lookup("10.0.0.1")).getStatus()).isEqualTo(HttpServletResponse.SC_OK);
+        }
+
+        // When
+        MockHttpServletResponse rejected = filter(lookup("10.0.0.1"));
+        nanoTime.addAndGet(TimeUnit.MILLISECONDS.toNanos(100));
+        MockHttpServletResponse refilled = filter(lookup("10.0.0.1"));
+
+        // Then
+        assertThat(rejected.getStatus()).isEqualTo(429);
+        assertThat(rejected.getHeader(HttpHeaders.RETRY_AFTER)).isEqualTo("1");
+        assertThat(refilled.getStatus()).isEqualTo(HttpServletResponse.SC_OK);
+        assertThat(meterRegistry.get("employee.api.rejected").tag("endpoint", "standard").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    public void givenFullScans_whenFilter_thenChargeMoreThanLookups() throws Exception {
+        // Given
+        MockHttpServletRequest fullScan = new MockHttpServletRequest("GET", "/api/employees/");
+        fullScan.setRemoteAddr("10.0.0.1");
+
+        // When
+        int firstStatus = filter(fullScan).getStatus();
+        int secondStatus = filter(fullScan).getStatus();
+        int thirdStatus = filter(fullScan).getStatus();
+
+        // Then
+        assertThat(firstStatus).isEqualTo(HttpServletResponse.SC_OK);
+        assertThat(secondStatus).isEqualTo(HttpServletResponse.SC_OK);
+        assertThat(thirdStatus).isEqualTo(429);
+    }
+
+    @Test
+    public void givenLargeLookups_whenFilter_thenChargeAsFullScans() throws Exception {
+        // Given
+        String manyIds = LongStream.rangeClosed(1, 2 * EndpointClass.LARGE_LOOKUP_IDS)
+                .mapToObj(String::valueOf)
+                .collect(Collectors.joining(","));
+        MockHttpServletRequest largeGet = lookup("10.0.0.1");
+        largeGet.setRequestURI("/api/employees/");
+        largeGet.setParameter("ids", manyIds);
+        MockHttpServletRequest largePost = new MockHttpServletRequest("POST", "/api/employees/lookup");
+        largePost.setRemoteAddr("10.0.0.1");
+        largePost.setContent(("[" + manyIds + "]").getBytes(StandardCharsets.UTF_8));
+        MockHttpServletRequest smallPost = new MockHttpServletRequest("POST", "/api/employees/lookup");
+        smallPost.setContent("[1,2,3]".getBytes(StandardCharsets.UTF_8));
+
+        // When
+        int firstStatus = filter(largeGet).getStatus();
+        int secondStatus = filter(largePost).getStatus();
+        int thirdStatus = filter(largeGet).getStatus();
+
+        // Then
+        assertThat(EndpointClass.of(largeGet)).isEqualTo(EndpointClass.FULL_SCAN);
+        assertThat(EndpointClass.of(largePost)).isEqualTo(EndpointClass.FULL_SCAN);
+        assertThat(EndpointClass.of(smallPost)).isEqualTo(EndpointClass.STANDARD);
+        assertThat(firstStatus).isEqualTo(HttpServletResponse.SC_OK);
+        assertThat(secondStatus).isEqualTo(HttpServletResponse.SC_OK);
+        assertThat(thirdStatus).isEqualTo(429);
+    }
+
+    @Test
+    public void givenOneClientLimited_whenOtherClientCalls_thenPass() throws Exception {
+        // Given
+        for (int i = 0; i <= 20; i++) {
+            filter(lookup("10.0.0.1"));
+        }
+
+        // When
+        MockHttpServletResponse response = filter(lookup("10.0.0.2"));
+
+        // Then
+        assertThat(response.getStatus()).isEqualTo(HttpServletResponse.SC_OK);
+    }
+
+    @Test
+    public void givenClientKeyHeader_whenClientsShareOneProxy_thenLimitEachClient() throws Exception {
+        // Given
+        filter = new RateLimitFilter(10, 20, RateLimitFilter.header("X-Client-Id"), meterRegistry, nanoTime::get);
+        for (int i = 0; i <= 20; i++) {
+            filter(lookup("10.0.0.1", "a"));
+        }
+
+        // When
+        MockHttpServletResponse limited = filter(lookup("10.0.0.1", "a"));
+        MockHttpServletResponse other = filter(lookup("10.0.0.1", "b"));
+        MockHttpServletResponse withoutHeader = filter(lookup("10.0.0.1"));
+
+        // Then
+        assertThat(limited.getStatus()).isEqualTo(429);
+        assertThat(other.getStatus()).isEqualTo(HttpServletResponse.SC_OK);
+        assertThat(withoutHeader.getStatus()).isEqualTo(HttpServletResponse.SC_OK);
+    }
+
+    private MockHttpServletResponse filter(MockHttpServletRequest request) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain());
+        return response;
+    }
+
+    private static MockHttpServletRequest lookup(String remoteAddr) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/employees/1/");
+        request.setRemoteAddr(remoteAddr);
+        return request;
+    }
+
+    private static MockHttpServletRequest lookup(String remoteAddr, String clientId) {
+        MockHttpServletRequest request = lookup(remoteAddr);
+        request.addHeader("X-Client-Id", clientId);
+        return request;
+    }
+}
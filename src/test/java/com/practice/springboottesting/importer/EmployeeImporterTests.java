@@ -0,0 +1,139 @@
+package com.practice.springboottesting.importer;
+
+import com.practice.springboottesting.controller.EmployeeController;
+import com.practice.springboottesting.model.Employee;
+import com.practice.springboottesting.repository.EmployeeChangeRepository;
+import com.practice.springboottesting.repository.EmployeeRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.CoreMatchers.is;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+public class EmployeeImporterTests {
+
+    private static final String IMPORT_URL = "/api/employees/import";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    @Autowired
+    private EmployeeChangeRepository changeRepository;
+
+    @BeforeEach
+    public void setup() {
+        employeeRepository.save(Employee.builder().firstName("Tom").lastName("lin").email("lin@gmail.com").build());
+    }
+
+    @AfterEach
+    public void cleanup() {
+        employeeRepository.deleteAllInBatch();
+        changeRepository.deleteAllInBatch();
+    }
+
+    @Test
+    public void givenCsvWithInvalidRows_whenImport_thenCreateValidRowsAndReportTheOthers() throws Exception {
+        // Given an exported style file: unknown ids and versions are ignored
+        String csv = """
+                id,firstName,lastName,email,version,updatedAt
+                7,Tim,lang,lang@gmail.com,3,2023-01-01T00:00:00Z
+                ,Ana,lee,lin@gmail.com,,
+                ,Bob,,bob@gmail.com,,
+                ,Tim,long,lang@gmail.com,,
+                ,Eva,ruiz,ruiz@gmail.com,,
+                """;
+
+        // When
+        ResultActions response = mockMvc.perform(post(IMPORT_URL).contentType("text/csv").content(csv));
+
+        // Then
+        response.andExpect(status().isOk())
+                .andExpect(jsonPath("$.status", is("COMPLETED")))
+                .andExpect(jsonPath("$.processedRows", is(5)))
+                .andExpect(jsonPath("$.created", is(2)))
+                .andExpect(jsonPath("$.rejected", is(3)))
+                .andExpect(jsonPath("$.errors[0].row", is(2)))
+                .andExpect(jsonPath("$.errors[0].reason", is("Employee already exist")))
+                .andExpect(jsonPath("$.errors[1].row", is(3)))
+                .andExpect(jsonPath("$.errors[2].row", is(4)))
+                .andExpect(jsonPath("$.errors[2].reason", is("Duplicate email in file")));
+        assertThat(employeeRepository.findByEmail("lang@gmail.com")).get()
+                .extracting(Employee::getLastName, Employee::getVersion)
+                .containsExactly("lang", 0L);
+        assertThat(employeeRepository.count()).isEqualTo(3);
+    }
+
+    @Test
+    public void givenDuplicateInALaterChunk_whenImport_thenRejectOnlyTheLaterRow() throws Exception {
+        // Given rows spread over several chunks validated in parallel
+        int rows = EmployeeImporter.CHUNK_SIZE * 3 + 10;
+        StringBuilder ndjson = new StringBuilder();
+        for (int i = 1; i <= rows; i++) {
+            int emailNumber = i == EmployeeImporter.CHUNK_SIZE + 5 ? 3 : i;
+            ndjson.append("{\"firstName\":\"First").append(i)
+                    .append("\",\"lastName\":\"Last").append(i)
+                    .append("\",\"email\":\"employee").append(emailNumber).append("@example.com\"}\n");
+        }
+
+        // When
+        ResultActions response = mockMvc.perform(post(IMPORT_URL)
+                .contentType(EmployeeController.APPLICATION_NDJSON_VALUE)
+                .content(ndjson.toString()));
+
+        // Then
+        response.andExpect(status().isOk())
+                .andExpect(jsonPath("$.created", is(rows - 1)))
+                .andExpect(jsonPath("$.rejected", is(1)))
+                .andExpect(jsonPath("$.errors[0].row", is(EmployeeImporter.CHUNK_SIZE + 5)));
+        assertThat(employeeRepository.count()).isEqualTo(rows);
+    }
+
+    @Test
+    public void givenUnreadableRow_whenImportAndResume_thenImportTheRestAfterIt() throws Exception {
+        // Given
+        String valid = """
+                {"firstName":"Tim","lastName":"lang","email":"lang@gmail.com"}
+                {"firstName":"Eva","lastName":"ruiz","email":"ruiz@gmail.com"}
+                """;
+        String rest = """
+                {"firstName":"Ana","lastName":"lee","email":"lee@gmail.com"}
+                """;
+
+        // When the third row is broken
+        ResultActions firstAttempt = mockMvc.perform(post(IMPORT_URL)
+                .contentType(EmployeeController.APPLICATION_NDJSON_VALUE)
+                .content(valid + "{\"firstName\":\n" + rest));
+
+        // Then the rows before it are imported
+        firstAttempt.andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.status", is("MALFORMED")))
+                .andExpect(jsonPath("$.processedRows", is(2)))
+                .andExpect(jsonPath("$.created", is(2)));
+
+        // When the fixed body is sent again from there
+        ResultActions resumed = mockMvc.perform(post(IMPORT_URL).param("skip", "2")
+                .contentType(EmployeeController.APPLICATION_NDJSON_VALUE)
+                .content(valid + "{\"firstName\":\"Bo\",\"lastName\":\"kim\",\"email\":\"kim@gmail.com\"}\n" + rest));
+
+        // Then
+        resumed.andExpect(status().isOk())
+                .andExpect(jsonPath("$.processedRows", is(4)))
+                .andExpect(jsonPath("$.created", is(2)))
+                .andExpect(jsonPath("$.rejected", is(0)));
+        assertThat(employeeRepository.count()).isEqualTo(5);
+    }
+}
@@ -81,6 +81,22 @@ public class EmployeeControllerITests extends AbstractionContainerBaseTest {
                 .andExpect(jsonPath("$.email", is(employee.getEmail())));
     }
 
+    @Test
+    public void givenListOfEmployees_whenCreateEmployees_thenReturnSavedEmployees() throws Exception {
+        // Given
+        List<Employee> employees = getListOfNewEmployees(3);
+
+        // When
+        ResultActions response = mockMvc.perform(post(serviceUrl + "batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(employees)));
+
+        // Then
+        response.andDo(print())
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.size()", is(employees.size())));
+    }
+
     @Test
     public void givenListOfEmployees_whenGetAllEmployees_thenReturnEmployeeList() throws Exception {
         // Given
@@ -174,4 +190,17 @@ public class EmployeeControllerITests extends AbstractionContainerBaseTest {
         response.andExpect(status().isOk())
                 .andDo(print());
     }
+
+    @Test
+    public void givenInvalidEmployeeId_whenDeleteEmployee_thenReturn404() throws Exception {
+        // Given
+        long noExistEmployeeId = 2L;
+
+        // When
+        ResultActions response = mockMvc.perform(delete(serviceUrl + "{id}/", noExistEmployeeId));
+
+        // Then
+        response.andExpect(status().isNotFound())
+                .andDo(print());
+    }
 }
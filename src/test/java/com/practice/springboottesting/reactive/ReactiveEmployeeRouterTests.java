@@ -0,0 +1,179 @@
+package com.practice.springboottesting.reactive;
+
+import com.practice.springboottesting.reactive.model.ReactiveEmployee;
+import com.practice.springboottesting.reactive.repository.ReactiveEmployeeRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(classes = ReactiveEmployeeApplication.class,
+        webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "spring.config.name=" + ReactiveEmployeeApplication.CONFIG_NAME)
+public class ReactiveEmployeeRouterTests {
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Autowired
+    private ReactiveEmployeeRepository employeeRepository;
+
+    @Autowired
+    private DatabaseClient databaseClient;
+
+    @BeforeEach
+    void setup() {
+        employeeRepository.deleteAll().block();
+        databaseClient.sql("delete from employee_changes").then().block();
+    }
+
+    @Test
+    public void givenEmployeeObject_whenCreateEmployee_thenReturnSavedEmployee() {
+        // given - precondition or setup
+        ReactiveEmployee employee = employee("john@mail.com");
+
+        // when - action or the behaviour that we are going test
+        ReactiveEmployee savedEmployee = webTestClient.post().uri("/api/employees/")
+                .bodyValue(employee)
+                .exchange()
+                .expectStatus().isCreated()
+                .expectBody(ReactiveEmployee.class)
+                .returnResult().getResponseBody();
+
+        // then - verify the output
+        assertThat(savedEmployee).isNotNull();
+        assertThat(savedEmployee.getId()).isNotNull();
+        assertThat(savedEmployee.getEmail()).isEqualTo(employee.getEmail());
+        StepVerifier.create(employeeRepository.findByEmail(employee.getEmail()))
+                .expectNextCount(1)
+                .verifyComplete();
+        assertThat(changes()).singleElement().satisfies(change -> {
+            assertThat(change).startsWith("CREATED ");
+            assertThat(change).contains("\"id\":" + savedEmployee.getId()).contains("john@mail.com");
+        });
+    }
+
+    @Test
+    public void givenDuplicateEmail_whenCreateEmployee_thenReturnConflict() {
+        // given - precondition or setup
+        employeeRepository.save(employee("john@mail.com")).block();
+
+        // when - action or the behaviour that we are going test
+        // then - verify the output
+        webTestClient.post().uri("/api/employees/")
+                .bodyValue(employee("john@mail.com"))
+                .exchange()
+                .expectStatus().isEqualTo(409);
+        assertThat(changes()).isEmpty();
+    }
+
+    @Test
+    public void givenEmployees_whenGetAllEmployeesAsNdjson_thenStreamOneEmployeePerLine() {
+        // given - precondition or setup
+        employeeRepository.saveAll(Flux.range(0, 3).map(i -> employee("employee" + i + "@mail.com"))).blockLast();
+
+        // when - action or the behaviour that we are going test
+        Flux<ReactiveEmployee> employees = webTestClient.get().uri("/api/employees/")
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON)
+                .returnResult(ReactiveEmployee.class).getResponseBody();
+
+        // then - verify the output
+        StepVerifier.create(employees.map(ReactiveEmployee::getEmail))
+                .expectNext("employee0@mail.com", "employee1@mail.com", "employee2@mail.com")
+                .verifyComplete();
+    }
+
+    @Test
+    public void givenEmployees_whenGetEmployeesAfterId_thenReturnNextPage() {
+        // given - precondition or setup
+        ReactiveEmployee first = employeeRepository.save(employee("first@mail.com")).block();
+        employeeRepository.save(employee("second@mail.com")).block();
+        employeeRepository.save(employee("third@mail.com")).block();
+
+        // when - action or the behaviour that we are going test
+        // then - verify the output
+        webTestClient.get().uri("/api/employees/?after={after}&limit=1", first.getId())
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.length()").isEqualTo(1)
+                .jsonPath("$[0].email").isEqualTo("second@mail.com");
+    }
+
+    @Test
+    public void givenEmployee_whenUpdateEmployee_thenReturnUpdatedEmployee() {
+        // given - precondition or setup
+        ReactiveEmployee savedEmployee = employeeRepository.save(employee("john@mail.com")).block();
+        ReactiveEmployee updatedEmployee = employee("jane@mail.com");
+
+        // when - action or the behaviour that we are going test
+        // then - verify the output
+        webTestClient.put().uri("/api/employees/{id}/", savedEmployee.getId())
+                .bodyValue(updatedEmployee)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.email").isEqualTo("jane@mail.com")
+                .jsonPath("$.version").isEqualTo(savedEmployee.getVersion() + 1);
+        assertThat(changes()).singleElement().satisfies(change ->
+                assertThat(change).startsWith("UPDATED ").contains("jane@mail.com"));
+    }
+
+    @Test
+    public void givenUnknownId_whenGetUpdateOrDeleteEmployee_thenReturnNotFound() {
+        // given - precondition or setup
+        long employeeId = 1000L;
+
+        // when - action or the behaviour that we are going test
+        // then - verify the output
+        webTestClient.get().uri("/api/employees/{id}/", employeeId).exchange().expectStatus().isNotFound();
+        webTestClient.put().uri("/api/employees/{id}/", employeeId).bodyValue(employee("john@mail.com"))
+                .exchange().expectStatus().isNotFound();
+        webTestClient.delete().uri("/api/employees/{id}/", employeeId).exchange().expectStatus().isNotFound();
+        assertThat(changes()).isEmpty();
+    }
+
+    @Test
+    public void givenEmployee_whenDeleteEmployee_thenRemoveIt() {
+        // given - precondition or setup
+        ReactiveEmployee savedEmployee = employeeRepository.save(employee("john@mail.com")).block();
+
+        // when - action or the behaviour that we are going test
+        webTestClient.delete().uri("/api/employees/{id}/", savedEmployee.getId())
+                .exchange()
+                .expectStatus().isOk();
+
+        // then - verify the output
+        StepVerifier.create(employeeRepository.findById(savedEmployee.getId())).verifyComplete();
+        assertThat(changes()).containsExactly("DELETED [" + savedEmployee.getId() + "]");
+    }
+
+    /** Change rows written through the API, as "TYPE payload" in seq order; rows seeded via the repository have none. */
+    private List<String> changes() {
+        return databaseClient.sql("select change_type, payload from employee_changes order by seq")
+                .map(row -> row.get("change_type", String.class) + " " + row.get("payload", String.class))
+                .all()
+                .collectList()
+                .block();
+    }
+
+    private static ReactiveEmployee employee(String email) {
+        return ReactiveEmployee.builder()
+                .firstName("John")
+                .lastName("Doe")
+                .email(email)
+                .build();
+    }
+}
@@ -0,0 +1,76 @@
+package com.practice.springboottesting.repository;
+
+import com.practice.springboottesting.model.EmployeeChange;
+import com.practice.springboottesting.model.EmployeeCollectionVersion;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+public class EmployeeChangeRepositoryTests {
+    @Autowired
+    private EmployeeChangeRepository changeRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private EmployeeChange change() {
+        return EmployeeChange.builder()
+                .type(EmployeeChange.Type.DELETED)
+                .payload("[1]")
+                .build();
+    }
+
+    @Test
+    public void givenChanges_whenFindCollectionVersion_thenReturnLatestSeq() {
+        // Given
+        EmployeeCollectionVersion emptyVersion = changeRepository.findCollectionVersion();
+        changeRepository.saveAndFlush(change());
+        EmployeeChange latestChange = changeRepository.saveAndFlush(change());
+
+        // When
+        EmployeeCollectionVersion collectionVersion = changeRepository.findCollectionVersion();
+
+        // Then
+        assertThat(emptyVersion.lastChangeSeq()).isZero();
+        assertThat(collectionVersion.lastChangeSeq()).isEqualTo(latestChange.getSeq());
+    }
+
+    @Test
+    public void givenOnlyExpiredChanges_whenDeleteRecordedBefore_thenKeepLatestChange() {
+        // Given
+        changeRepository.saveAndFlush(change());
+        EmployeeChange latestChange = changeRepository.saveAndFlush(change());
+
+        // When
+        int purged = changeRepository.deleteRecordedBefore(Instant.now().plusSeconds(60));
+
+        // Then
+        assertThat(purged).isEqualTo(1);
+        assertThat(changeRepository.findCollectionVersion().lastChangeSeq()).isEqualTo(latestChange.getSeq());
+    }
+
+    @Test
+    public void givenOldAndFreshChanges_whenFindSettledAfter_thenHoldBackTheFreshOne() {
+        // Given a change recorded an hour ago and one recorded now, both by the database clock
+        jdbcTemplate.update("insert into employee_changes (change_type, payload, recorded_at) values ('DELETED', '[1]', ?)",
+                Timestamp.from(Instant.now().minus(Duration.ofHours(1))));
+        EmployeeChange freshChange = changeRepository.saveAndFlush(change());
+
+        // When
+        List<EmployeeChange> settled = changeRepository.findSettledAfter(0, Duration.ofMinutes(30).toNanos(), PageRequest.ofSize(10));
+
+        // Then
+        assertThat(settled).hasSize(1);
+        assertThat(settled.get(0).getSeq()).isLessThan(freshChange.getSeq());
+    }
+}
@@ -0,0 +1,89 @@
+package com.practice.springboottesting.repository;
+
+import com.practice.springboottesting.model.Employee;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Starts from a populated employees table in the shape ddl-auto=update gave it before the migrations existed, and
+ * lets Flyway baseline and upgrade it with the settings of the prod profile. Hibernate then validates the result.
+ */
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:legacy;DB_CLOSE_DELAY=-1;INIT=RUNSCRIPT FROM 'classpath:legacy-schema.sql'",
+        "spring.flyway.enabled=true",
+        "spring.flyway.baseline-on-migrate=true",
+        "spring.flyway.baseline-version=0",
+        "spring.jpa.hibernate.ddl-auto=validate"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+public class EmployeeLegacySchemaMigrationTests {
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    @Test
+    public void givenLegacyRows_whenMigrate_thenStartAtVersionZero() {
+        // Given the rows of legacy-schema.sql, migrated at startup
+
+        // When
+        List<Long> versions = jdbcTemplate.queryForList("select version from employees order by id", Long.class);
+
+        // Then
+        assertThat(versions).containsExactly(0L, 0L, 0L);
+    }
+
+    @Test
+    public void givenLegacyIds_whenMigrate_thenSequenceBlockStartsAfterThem() {
+        // Given the ids 1 to 3 of legacy-schema.sql, migrated at startup
+
+        // When
+        long blockEnd = jdbcTemplate.queryForObject("select next value for employees_seq", Long.class);
+
+        // Then the pooled optimizer hands out the 50 ids up to blockEnd
+        assertThat(blockEnd - 49).isGreaterThan(3);
+    }
+
+    @Test
+    public void givenLegacyRows_whenSaveNewEmployee_thenGetUnusedId() {
+        // Given an employee
+        Employee employee = Employee.builder()
+                .firstName("Tim")
+                .lastName("lu")
+                .email("lu@gmail.com")
+                .build();
+
+        // When
+        Employee savedEmployee = employeeRepository.saveAndFlush(employee);
+
+        // Then
+        assertThat(savedEmployee.getId()).isGreaterThan(3L);
+        assertThat(employeeRepository.count()).isEqualTo(4);
+    }
+
+    @Test
+    public void givenLegacyRows_whenSaveDuplicateEmail_thenThrowsException() {
+        // Given an employee with the email of a legacy row
+        Employee employee = Employee.builder()
+                .firstName("Tim")
+                .lastName("lin")
+                .email("lin@gmail.com")
+                .build();
+
+        // When
+        assertThatThrownBy(() -> employeeRepository.saveAndFlush(employee))
+                // Then
+                .isInstanceOf(DataIntegrityViolationException.class)
+                .hasMessageContaining(Employee.EMAIL_CONSTRAINT.toUpperCase());
+    }
+}
@@ -1,18 +1,29 @@
 package com.practice.springboottesting.repository;
 
 import com.practice.springboottesting.model.Employee;
+import com.practice.springboottesting.model.EmployeeSummary;
+import com.practice.springboottesting.model.EmployeeVersion;
+import com.practice.springboottesting.model.EmployeeView;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
-@DataJpaTest
+// names are deduplicated so that the read model tests can check instance sharing; no other query depends on it
+@DataJpaTest(properties = "employees.read-model.deduplicate-names=true")
 public class EmployeeRepositoryTests {
     @Autowired
     private EmployeeRepository employeeRepository;
@@ -40,6 +51,23 @@ public class EmployeeRepositoryTests {
         assertThat(savedEmployee.getId()).isPositive();
     }
 
+    @Test
+    public void givenExistingEmail_whenSaveAndFlush_thenViolateUniqueEmail() {
+        // Given an employee
+        employeeRepository.saveAndFlush(employee);
+        Employee duplicatedEmployee = Employee.builder()
+                .firstName("Tim")
+                .lastName("lang")
+                .email(employee.getEmail())
+                .build();
+
+        // When
+        assertThatThrownBy(() -> employeeRepository.saveAndFlush(duplicatedEmployee))
+                // Then
+                .isInstanceOf(DataIntegrityViolationException.class)
+                .hasMessageContaining(Employee.EMAIL_CONSTRAINT.toUpperCase());
+    }
+
     @Test
     public void givenEmployeesList_whenFindAll_thenEmployeesList() {
         // Given
@@ -66,6 +94,66 @@ public class EmployeeRepositoryTests {
         assertThat(employeeList.size()).isEqualTo(2);
     }
 
+    @Test
+    public void givenEmployeesList_whenFindViewsAfter_thenReturnNextPageOrderedById() {
+        // Given
+        List<Employee> savedEmployees = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            savedEmployees.add(employeeRepository.save(Employee.builder()
+                    .firstName("Tom" + i)
+                    .lastName("lin")
+                    .email("lin" + i + "@gmail.com")
+                    .build()));
+        }
+        employeeRepository.flush();
+        long cursor = savedEmployees.get(1).getId();
+
+        // When
+        List<EmployeeView> employeeViews = employeeRepository.findViewsAfter(cursor, 2);
+
+        // Then
+        assertThat(employeeViews).containsExactly(view(savedEmployees.get(2)), view(savedEmployees.get(3)));
+    }
+
+    @Test
+    public void givenNamesakes_whenFindAllViews_thenShareOneInstancePerName() {
+        // Given
+        employeeRepository.save(employee);
+        employeeRepository.save(Employee.builder()
+                .firstName("Tom")
+                .lastName("lin")
+                .email("tom.lin@gmail.com")
+                .build());
+        employeeRepository.flush();
+
+        // When
+        List<EmployeeView> employeeViews = employeeRepository.findAllViews();
+
+        // Then
+        assertThat(employeeViews).hasSize(2);
+        assertThat(employeeViews.get(0).firstName()).isSameAs(employeeViews.get(1).firstName());
+        assertThat(employeeViews.get(0).lastName()).isSameAs(employeeViews.get(1).lastName());
+    }
+
+    @Test
+    public void givenEmployeesList_whenForEachEmployee_thenVisitEveryEmployeeInIdOrder() {
+        // Given
+        employeeRepository.save(employee);
+        employeeRepository.save(Employee.builder()
+                .firstName("Tim")
+                .lastName("lang")
+                .email("lang@gmail.com")
+                .build());
+        List<Employee> visitedEmployees = new ArrayList<>();
+
+        // When
+        employeeRepository.forEachEmployee(visitedEmployees::add);
+
+        // Then
+        assertThat(visitedEmployees.size()).isEqualTo(2);
+        assertThat(visitedEmployees.get(0).getId()).isLessThan(visitedEmployees.get(1).getId());
+    }
+
     @Test
     public void givenEmployeeObject_whenFindById_thenReturnEmployeeObject() {
         // Given an employee
@@ -78,6 +166,18 @@ public class EmployeeRepositoryTests {
         assertThat(retrievedEmployee).isNotNull();
     }
 
+    @Test
+    public void givenEmployeeObject_whenFindExistingEmails_thenReturnOnlyStoredEmails() {
+        // Given an employee
+        employeeRepository.save(employee);
+
+        // When
+        Set<String> existingEmails = employeeRepository.findExistingEmails(List.of(employee.getEmail(), "new@gmail.com"));
+
+        // Then
+        assertThat(existingEmails).containsExactly(employee.getEmail());
+    }
+
     @Test
     public void givenEmployeeEmail_whenFindByEmail_thenReturnEmployeeObject() {
         // Given an employee
@@ -109,6 +209,52 @@ public class EmployeeRepositoryTests {
         assertThat(updatedEmployee.getFirstName()).isEqualTo(newFirstName);
     }
 
+    @Test
+    public void givenEmployeeChanges_whenPatchEmployee_thenUpdateOnlyGivenFields() {
+        // Given an employee
+        employeeRepository.saveAndFlush(employee);
+        long version = employee.getVersion();
+
+        // When
+        int updatedRows = employeeRepository.patchEmployee(employee.getId(), Employee.builder().firstName("Lin").build());
+        Employee retrievedEmployee = employeeRepository.findById(employee.getId()).get();
+
+        // Then
+        assertThat(updatedRows).isEqualTo(1);
+        assertThat(retrievedEmployee.getFirstName()).isEqualTo("Lin");
+        assertThat(retrievedEmployee.getLastName()).isEqualTo("lin");
+        assertThat(retrievedEmployee.getVersion()).isEqualTo(version + 1);
+    }
+
+    @Test
+    public void givenEmployeeChanges_whenPatchEmployee_thenMoveVersionAndModificationTime() {
+        // Given an employee
+        employeeRepository.saveAndFlush(employee);
+        EmployeeVersion versionBefore = employeeRepository.findVersionById(employee.getId()).orElseThrow();
+
+        // When
+        employeeRepository.patchEmployee(employee.getId(), Employee.builder().firstName("Tim").build());
+        EmployeeVersion versionAfter = employeeRepository.findVersionById(employee.getId()).orElseThrow();
+
+        // Then
+        assertThat(versionAfter.version()).isEqualTo(versionBefore.version() + 1);
+        assertThat(versionAfter.updatedAt()).isAfterOrEqualTo(versionBefore.updatedAt());
+        assertThat(employeeRepository.findVersionById(employee.getId() + 1000)).isEmpty();
+    }
+
+    @Test
+    public void givenStaleVersion_whenPatchEmployee_thenUpdateNothing() {
+        // Given an employee
+        employeeRepository.saveAndFlush(employee);
+        Employee changes = Employee.builder().firstName("Lin").version(employee.getVersion() + 1).build();
+
+        // When
+        int updatedRows = employeeRepository.patchEmployee(employee.getId(), changes);
+
+        // Then
+        assertThat(updatedRows).isZero();
+    }
+
     @Test
     public void givenEmployeeObject_whenDeleteEmployeeById_thenRemoveEmployee() {
         // Given an employee
@@ -122,6 +268,41 @@ public class EmployeeRepositoryTests {
         assertThat(retrievedEmployee).isEmpty();
     }
 
+    @Test
+    public void givenEmployeeIds_whenDeleteByIds_thenRemoveOnlyExistingEmployees() {
+        // Given an employee
+        employeeRepository.save(employee);
+
+        // When
+        int deletedRows = employeeRepository.deleteByIds(List.of(employee.getId(), employee.getId() + 1000));
+        Optional<Employee> retrievedEmployee = employeeRepository.findById(employee.getId());
+
+        // Then
+        assertThat(deletedRows).isEqualTo(1);
+        assertThat(retrievedEmployee).isEmpty();
+    }
+
+    @Test
+    public void givenNamesakes_whenFindByLastNameAndFirstName_thenReturnSummariesPageByPage() {
+        // Given two employees with the same name and one with another first name
+        employeeRepository.save(employee);
+        employeeRepository.save(Employee.builder().firstName("Tom").lastName("lin").email("tom.lin@gmail.com").build());
+        employeeRepository.save(Employee.builder().firstName("Tim").lastName("lin").email("tim.lin@gmail.com").build());
+        Sort order = Sort.by("firstName", "id");
+
+        // When
+        Slice<EmployeeSummary> firstPage = employeeRepository.findByLastNameAndFirstName("lin", "Tom", PageRequest.of(0, 1, order));
+        Slice<EmployeeSummary> secondPage = employeeRepository.findByLastNameAndFirstName("lin", "Tom", PageRequest.of(1, 1, order));
+        Slice<EmployeeSummary> allLins = employeeRepository.findByLastName("lin", PageRequest.of(0, 10, order));
+
+        // Then
+        assertThat(firstPage.getContent()).extracting(EmployeeSummary::email).containsExactly("lin@gmail.com");
+        assertThat(firstPage.hasNext()).isTrue();
+        assertThat(secondPage.getContent()).extracting(EmployeeSummary::email).containsExactly("tom.lin@gmail.com");
+        assertThat(secondPage.hasNext()).isFalse();
+        assertThat(allLins.getContent()).extracting(EmployeeSummary::firstName).containsExactly("Tim", "Tom", "Tom");
+    }
+
     @Test
     public void givenFirstNameAndLastName_whenFindBy_thenReturnEmployeeObject() {
         // Given an employee
@@ -169,4 +350,9 @@ public class EmployeeRepositoryTests {
         // Then
         assertThat(retrievedEmployee).isNotNull();
     }
+
+    private static EmployeeView view(Employee employee) {
+        return new EmployeeView(employee.getId(), employee.getFirstName(), employee.getLastName(), employee.getEmail(),
+                employee.getVersion(), employee.getUpdatedAt());
+    }
 }
@@ -0,0 +1,38 @@
+package com.practice.springboottesting.repository;
+
+import com.practice.springboottesting.model.Employee;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs the Flyway migrations instead of ddl-auto, and lets Hibernate validate the result against the mapping.
+ */
+@DataJpaTest(properties = {
+        "spring.flyway.enabled=true",
+        "spring.jpa.hibernate.ddl-auto=validate"
+})
+public class EmployeeSchemaMigrationTests {
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    @Test
+    public void givenMigratedSchema_whenSaveAndFind_thenMappingMatches() {
+        // Given an employee
+        Employee employee = Employee.builder()
+                .firstName("Tom")
+                .lastName("lin")
+                .email("lin@gmail.com")
+                .build();
+
+        // When
+        Employee savedEmployee = employeeRepository.saveAndFlush(employee);
+
+        // Then
+        assertThat(employeeRepository.findByEmail("lin@gmail.com")).get()
+                .extracting(Employee::getId)
+                .isEqualTo(savedEmployee.getId());
+    }
+}
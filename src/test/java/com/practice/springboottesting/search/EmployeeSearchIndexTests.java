@@ -0,0 +1,134 @@
+package com.practice.springboottesting.search;
+
+import com.practice.springboottesting.model.EmployeeSummary;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class EmployeeSearchIndexTests {
+
+    private EmployeeSearchIndex searchIndex;
+
+    @BeforeEach
+    public void setup() {
+        searchIndex = new EmployeeSearchIndex();
+        searchIndex.index(new EmployeeSummary(1L, "Tom", "Lin", "lin@gmail.com"));
+        searchIndex.index(new EmployeeSummary(2L, "Tim", "Lang", "lang@gmail.com"));
+        searchIndex.index(new EmployeeSummary(3L, "Anna", "Tomson", "anna@mail.com"));
+    }
+
+    @Test
+    public void givenIndexedEmployees_whenSuggestPrefix_thenReturnEmployeesWithAnyMatchingField() {
+        // Given the indexed employees
+
+        // When
+        List<EmployeeSummary> suggestions = searchIndex.suggest("TO", 10);
+
+        // Then
+        assertThat(suggestions).extracting(EmployeeSummary::id).containsExactlyInAnyOrder(1L, 3L);
+    }
+
+    @Test
+    public void givenSeveralWords_whenSuggest_thenEveryWordMustMatch() {
+        // Given the indexed employees
+
+        // When
+        List<EmployeeSummary> suggestions = searchIndex.suggest("t la", 10);
+
+        // Then
+        assertThat(suggestions).extracting(EmployeeSummary::id).containsExactly(2L);
+    }
+
+    @Test
+    public void givenManyMatches_whenSuggestWithLimit_thenStopAtLimit() {
+        // Given the indexed employees
+
+        // When
+        List<EmployeeSummary> suggestions = searchIndex.suggest("l", 1);
+
+        // Then
+        assertThat(suggestions).hasSize(1);
+    }
+
+    @Test
+    public void givenTypo_whenSuggest_thenFallBackToSimilarEmployees() {
+        // Given the indexed employees
+
+        // When
+        List<EmployeeSummary> suggestions = searchIndex.suggest("tomsno", 10);
+
+        // Then
+        assertThat(suggestions).extracting(EmployeeSummary::id).containsExactly(3L);
+    }
+
+    @Test
+    public void givenReindexedEmployee_whenSuggestOldName_thenDoNotReturnIt() {
+        // Given
+        searchIndex.index(new EmployeeSummary(1L, "Tom", "Lee", "lee@gmail.com"));
+
+        // When
+        List<EmployeeSummary> oldNameSuggestions = searchIndex.suggest("lin", 10);
+        List<EmployeeSummary> newNameSuggestions = searchIndex.suggest("lee", 10);
+
+        // Then
+        assertThat(oldNameSuggestions).isEmpty();
+        assertThat(newNameSuggestions).extracting(EmployeeSummary::lastName).containsExactly("Lee");
+    }
+
+    @Test
+    public void givenRemovedEmployee_whenSuggest_thenDoNotReturnIt() {
+        // Given
+        searchIndex.remove(2L);
+
+        // When
+        List<EmployeeSummary> suggestions = searchIndex.suggest("tim", 10);
+
+        // Then
+        assertThat(suggestions).isEmpty();
+        assertThat(searchIndex.size()).isEqualTo(2);
+    }
+
+    @Test
+    public void givenRebuildInProgress_whenSuggest_thenServePreviousContentAndKeepLiveWrites() {
+        // Given a reload that sees employee 1 and 4 (1 renamed), during which employee 5 is indexed and 4 removed
+        List<List<EmployeeSummary>> duringRebuild = new ArrayList<>();
+
+        // When
+        searchIndex.rebuild(sink -> {
+            sink.accept(new EmployeeSummary(1L, "Tom", "Lee", "lee@gmail.com"));
+            sink.accept(new EmployeeSummary(4L, "Ada", "Love", "ada@mail.com"));
+            duringRebuild.add(searchIndex.suggest("tim", 10));
+            searchIndex.index(new EmployeeSummary(5L, "Bob", "Stone", "bob@mail.com"));
+            searchIndex.remove(4L);
+        });
+
+        // Then
+        assertThat(duringRebuild.get(0)).extracting(EmployeeSummary::id).containsExactly(2L);
+        assertThat(searchIndex.suggest("tim", 10)).isEmpty();
+        assertThat(searchIndex.suggest("lee", 10)).extracting(EmployeeSummary::id).containsExactly(1L);
+        assertThat(searchIndex.suggest("ada", 10)).isEmpty();
+        assertThat(searchIndex.suggest("bob", 10)).extracting(EmployeeSummary::id).containsExactly(5L);
+        assertThat(searchIndex.size()).isEqualTo(2);
+    }
+
+    @Test
+    public void givenFailingRebuild_whenSuggest_thenKeepPreviousContent() {
+        // Given
+        RuntimeException failure = new IllegalStateException("database unavailable");
+
+        // When
+        assertThatThrownBy(() -> searchIndex.rebuild(sink -> {
+            sink.accept(new EmployeeSummary(4L, "Ada", "Love", "ada@mail.com"));
+            throw failure;
+        })).isSameAs(failure);
+
+        // Then
+        assertThat(searchIndex.size()).isEqualTo(3);
+        assertThat(searchIndex.suggest("ada", 10)).isEmpty();
+    }
+}
@@ -0,0 +1,52 @@
+package com.practice.springboottesting.search;
+
+import com.practice.springboottesting.model.Employee;
+import com.practice.springboottesting.model.EmployeeSummary;
+import com.practice.springboottesting.repository.EmployeeRepository;
+import com.practice.springboottesting.service.EmployeeService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+public class EmployeeSearchIndexUpdaterTests {
+
+    @Autowired
+    private EmployeeService employeeService;
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    @AfterEach
+    public void cleanup() {
+        employeeRepository.deleteAll();
+    }
+
+    @Test
+    public void givenEmployeeWrites_whenSuggest_thenFollowEveryChange() {
+        // Given
+        Employee savedEmployee = employeeService.save(Employee.builder()
+                .firstName("Grace")
+                .lastName("Hopper")
+                .email("grace@navy.mil")
+                .build());
+
+        // When
+        boolean createdFound = !employeeService.suggestEmployees("hop", 10).isEmpty();
+        employeeService.patchEmployee(savedEmployee.getId(), Employee.builder().lastName("Murray").build());
+        boolean patchedFound = employeeService.suggestEmployees("gra mur", 10).stream()
+                .map(EmployeeSummary::id)
+                .anyMatch(id -> id == savedEmployee.getId());
+        boolean oldNameFound = !employeeService.suggestEmployees("hopper", 10).isEmpty();
+        employeeService.deleteEmployee(savedEmployee.getId());
+
+        // Then
+        assertThat(createdFound).isTrue();
+        assertThat(patchedFound).isTrue();
+        assertThat(oldNameFound).isFalse();
+        assertThat(employeeService.suggestEmployees("grace", 10)).isEmpty();
+    }
+}
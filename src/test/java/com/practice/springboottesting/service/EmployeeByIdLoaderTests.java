@@ -0,0 +1,121 @@
+package com.practice.springboottesting.service;
+
+import com.practice.springboottesting.model.Employee;
+import com.practice.springboottesting.repository.EmployeeRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.QueryTimeoutException;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.willAnswer;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+public class EmployeeByIdLoaderTests {
+
+    @Mock
+    private EmployeeRepository employeeRepository;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private EmployeeByIdLoader employeeLoader;
+
+    private Employee tom;
+
+    @BeforeEach
+    public void setup() {
+        meterRegistry = new SimpleMeterRegistry();
+        employeeLoader = new EmployeeByIdLoader(employeeRepository, meterRegistry, Duration.ofMillis(50), 100);
+        tom = Employee.builder().id(1L).firstName("Tom").lastName("lin").email("lin@gmail.com").build();
+    }
+
+    @Test
+    public void givenConcurrentLookupsOfOneId_whenLoad_thenRunOneQuery() throws Exception {
+        // Given the query blocks until every caller is waiting for it
+        int callers = 8;
+        CountDownLatch releaseQuery = new CountDownLatch(1);
+        willAnswer(invocation -> {
+            releaseQuery.await(5, TimeUnit.SECONDS);
+            return List.of(tom);
+        }).given(employeeRepository).findAllByIdOnPrimary(List.of(1L));
+
+        // When
+        List<CompletableFuture<Optional<Employee>>> results = new ArrayList<>();
+        for (int i = 0; i < callers; i++) {
+            results.add(CompletableFuture.supplyAsync(() -> employeeLoader.load(1L)));
+        }
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (meterRegistry.get("employee.loader.coalesced").counter().count() < callers - 1 && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        releaseQuery.countDown();
+
+        // Then
+        for (CompletableFuture<Optional<Employee>> result : results) {
+            assertThat(result.get(5, TimeUnit.SECONDS)).contains(tom);
+        }
+        verify(employeeRepository, times(1)).findAllByIdOnPrimary(anyCollection());
+        assertThat(meterRegistry.get("employee.loader.requests").counter().count()).isEqualTo(callers);
+        assertThat(meterRegistry.get("employee.loader.queries").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void givenLookupsOfDifferentIdsWithinWindow_whenLoad_thenBatchThemIntoOneQuery() throws Exception {
+        // Given
+        given(employeeRepository.findAllByIdOnPrimary(anyCollection())).willReturn(List.of(tom));
+
+        // When
+        CompletableFuture<Optional<Employee>> found = CompletableFuture.supplyAsync(() -> employeeLoader.load(1L));
+        CompletableFuture<Optional<Employee>> missing = CompletableFuture.supplyAsync(() -> employeeLoader.load(2L));
+
+        // Then
+        assertThat(found.get(5, TimeUnit.SECONDS)).contains(tom);
+        assertThat(missing.get(5, TimeUnit.SECONDS)).isEmpty();
+        ArgumentCaptor<Collection<Long>> ids = ArgumentCaptor.forClass(Collection.class);
+        verify(employeeRepository).findAllByIdOnPrimary(ids.capture());
+        assertThat(ids.getValue()).containsExactlyInAnyOrder(1L, 2L);
+    }
+
+    @Test
+    public void givenFailingQuery_whenLoad_thenRethrowToCaller() {
+        // Given
+        given(employeeRepository.findAllByIdOnPrimary(List.of(1L)))
+                .willThrow(new QueryTimeoutException("timeout"))
+                .willReturn(List.of(tom));
+
+        // When / Then the failed load is not shared with later callers
+        assertThatThrownBy(() -> employeeLoader.load(1L)).isInstanceOf(QueryTimeoutException.class);
+        assertThat(employeeLoader.load(1L)).contains(tom);
+    }
+
+    @Test
+    public void givenQueryThrowsError_whenLoad_thenRethrowAndClearInFlight() {
+        // Given
+        given(employeeRepository.findAllByIdOnPrimary(List.of(1L)))
+                .willThrow(new StackOverflowError())
+                .willReturn(List.of(tom));
+
+        // When / Then the id does not stay in flight after an Error
+        assertThatThrownBy(() -> employeeLoader.load(1L)).isInstanceOf(StackOverflowError.class);
+        assertThat(employeeLoader.load(1L)).contains(tom);
+    }
+}
@@ -0,0 +1,134 @@
+package com.practice.springboottesting.service;
+
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.practice.springboottesting.config.CacheConfig;
+import com.practice.springboottesting.model.Employee;
+import com.practice.springboottesting.repository.EmployeeRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+public class EmployeeServiceCacheTests {
+
+    @Autowired
+    private EmployeeService employeeService;
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private Employee employee;
+
+    @BeforeEach
+    public void setup() {
+        employeeRepository.deleteAll();
+        cacheManager.getCacheNames().forEach(name -> cacheManager.getCache(name).clear());
+        employee = employeeRepository.save(Employee.builder()
+                .firstName("Tom")
+                .lastName("lin")
+                .email("lin@gmail.com")
+                .build());
+    }
+
+    CacheStats statsOf(String cacheName) {
+        return ((CaffeineCache) cacheManager.getCache(cacheName)).getNativeCache().stats();
+    }
+
+    @Test
+    public void givenCachedEmployee_whenGetEmployeeById_thenServeFromCache() {
+        // Given
+        CacheStats before = statsOf(CacheConfig.EMPLOYEES_CACHE);
+        employeeService.getEmployeeById(employee.getId());
+
+        // When
+        Optional<Employee> retrievedEmployee = employeeService.getEmployeeById(employee.getId());
+
+        // Then
+        CacheStats stats = statsOf(CacheConfig.EMPLOYEES_CACHE).minus(before);
+        assertThat(retrievedEmployee).isPresent();
+        assertThat(stats.missCount()).isEqualTo(1);
+        assertThat(stats.hitCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void givenCachedEmployee_whenUpdateEmployee_thenEvictStaleEntry() {
+        // Given
+        employeeService.getEmployeeById(employee.getId());
+        Employee updatedEmployee = Employee.builder()
+                .id(employee.getId())
+                .firstName("Lin")
+                .lastName("lin")
+                .email("linupdate@gmail.com")
+                .version(employee.getVersion())
+                .build();
+
+        // When
+        employeeService.updateEmployee(updatedEmployee);
+
+        // Then
+        assertThat(employeeService.getEmployeeById(employee.getId()).get().getEmail()).isEqualTo("linupdate@gmail.com");
+    }
+
+    @Test
+    public void givenCachedEmployee_whenUpdateInTransaction_thenEvictAfterCommit() {
+        // Given
+        employeeService.getEmployeeById(employee.getId());
+        Employee updatedEmployee = Employee.builder()
+                .id(employee.getId())
+                .firstName("Lin")
+                .lastName("lin")
+                .email("linupdate@gmail.com")
+                .version(employee.getVersion())
+                .build();
+
+        // When
+        boolean cachedBeforeCommit = new TransactionTemplate(transactionManager).execute(status -> {
+            employeeService.updateEmployee(updatedEmployee);
+            return cacheManager.getCache(CacheConfig.EMPLOYEES_CACHE).get(employee.getId()) != null;
+        });
+
+        // Then
+        assertThat(cachedBeforeCommit).isTrue();
+        assertThat(cacheManager.getCache(CacheConfig.EMPLOYEES_CACHE).get(employee.getId())).isNull();
+    }
+
+    @Test
+    public void givenCachedEmployee_whenPatchEmployee_thenEvictStaleEntry() {
+        // Given
+        employeeService.getEmployeeById(employee.getId());
+
+        // When
+        employeeService.patchEmployee(employee.getId(), Employee.builder().firstName("Lin").build());
+
+        // Then
+        assertThat(employeeService.getEmployeeById(employee.getId()).get().getFirstName()).isEqualTo("Lin");
+    }
+
+    @Test
+    public void givenCachedEmployee_whenDeleteEmployee_thenEvictEntry() {
+        // Given
+        employeeService.getEmployeeById(employee.getId());
+
+        // When
+        employeeService.deleteEmployee(employee.getId());
+
+        // Then
+        assertThat(cacheManager.getCache(CacheConfig.EMPLOYEES_CACHE).get(employee.getId())).isNull();
+        assertThat(employeeService.getEmployeeById(employee.getId())).isEmpty();
+    }
+}
@@ -0,0 +1,50 @@
+package com.practice.springboottesting.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+public class EmployeeServiceMetricsTests {
+
+    @Autowired
+    private EmployeeService employeeService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    public void givenServiceCall_whenGetAllEmployees_thenRecordServiceAndRepositoryTimers() {
+        // Given
+        double serviceCallsBefore = countOf("employee.service", "method", "getAllEmployees");
+        double repositoryCallsBefore = countOf("spring.data.repository.invocations", "method", "findAllViews");
+
+        // When
+        employeeService.getAllEmployees();
+
+        // Then
+        assertThat(countOf("employee.service", "method", "getAllEmployees")).isEqualTo(serviceCallsBefore + 1);
+        assertThat(countOf("spring.data.repository.invocations", "method", "findAllViews")).isEqualTo(repositoryCallsBefore + 1);
+    }
+
+    @Test
+    public void givenStartedApplication_whenInspectRegistry_thenExposePoolAndHibernateMetrics() {
+        // Given the application context
+
+        // When
+        employeeService.getAllEmployees();
+
+        // Then
+        assertThat(meterRegistry.find("hikaricp.connections.max").gauge()).isNotNull();
+        assertThat(meterRegistry.find("hibernate.statements").functionCounter()).isNotNull();
+    }
+
+    double countOf(String timerName, String tagKey, String tagValue) {
+        return meterRegistry.find(timerName).tag(tagKey, tagValue).timers().stream()
+                .mapToDouble(timer -> timer.count())
+                .sum();
+    }
+}
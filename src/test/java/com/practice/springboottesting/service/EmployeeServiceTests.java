@@ -1,28 +1,40 @@
 package com.practice.springboottesting.service;
 
 import com.github.javafaker.Faker;
-import com.practice.springboottesting.exception.ResourceNotFoundException;
+import com.practice.springboottesting.event.EmployeeEvent;
+import com.practice.springboottesting.exception.ResourceConflictException;
 import com.practice.springboottesting.model.Employee;
+import com.practice.springboottesting.model.EmployeeLookup;
+import com.practice.springboottesting.model.EmployeeSummary;
+import com.practice.springboottesting.model.EmployeeView;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
+import com.practice.springboottesting.repository.EmployeeChangeRepository;
 import com.practice.springboottesting.repository.EmployeeRepository;
+import com.practice.springboottesting.search.EmployeeSearchIndex;
 import com.practice.springboottesting.service.Impl.EmployeeServiceImpl;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.BDDMockito.given;
-import static org.mockito.BDDMockito.willDoNothing;
+import static org.mockito.BDDMockito.willThrow;
 import static org.mockito.Mockito.*;
 
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
 
 import java.util.*;
+import java.util.stream.LongStream;
 
 @ExtendWith(MockitoExtension.class)
 public class EmployeeServiceTests {
@@ -30,6 +42,18 @@ public class EmployeeServiceTests {
     @Mock
     private EmployeeRepository employeeRepository;
 
+    @Mock
+    private EmployeeChangeRepository changeRepository;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private EmployeeSearchIndex searchIndex;
+
+    @Mock
+    private EmployeeByIdLoader employeeLoader;
+
     @InjectMocks
     private EmployeeServiceImpl employeeService;
 
@@ -63,38 +87,120 @@ public class EmployeeServiceTests {
     public void givenEmployeeObject_whenSaveEmployee_thenReturnEmployeeObject() {
         // Given and employee
 
-        given(employeeRepository.findByEmail(employee.getEmail())).willReturn(Optional.empty());
-        given(employeeRepository.save(employee)).willReturn(employee);
+        given(employeeRepository.saveAndFlush(employee)).willReturn(employee);
 
         // When
         Employee savedEmployee = employeeService.save(employee);
 
         // Then
         assertThat(savedEmployee).isNotNull();
+        verify(employeeRepository, never()).findByEmail(anyString());
+        verify(eventPublisher).publishEvent(new EmployeeEvent.Saved(List.of(employee)));
     }
 
     @Test
     public void givenEmployeeObject_whenSaveEmployee_thenThrowException() {
         // Given and employee
-        given(employeeRepository.findByEmail(employee.getEmail())).willReturn(Optional.of(employee));
+        given(employeeRepository.saveAndFlush(employee)).willThrow(new DataIntegrityViolationException(
+                "duplicate key value violates unique constraint \"" + Employee.EMAIL_CONSTRAINT + "\""));
 
         // When
-        assertThrows(ResourceNotFoundException.class, () -> {
+        assertThrows(ResourceConflictException.class, () -> {
             Employee savedEmployee = employeeService.save(employee);
         });
 
         // Then
-        verify(employeeRepository, never()).save(any(Employee.class));
+        verify(employeeRepository, times(1)).saveAndFlush(employee);
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+
+    @Test
+    public void givenEmployeeWithoutName_whenSaveEmployee_thenPropagateIntegrityViolation() {
+        // Given and employee
+        employee.setFirstName(null);
+        given(employeeRepository.saveAndFlush(employee)).willThrow(new DataIntegrityViolationException(
+                "NULL not allowed for column \"FIRST_NAME\""));
+
+        // When
+        assertThrows(DataIntegrityViolationException.class, () -> employeeService.save(employee));
+    }
+
+    @Test
+    public void givenEmployeesList_whenSaveAll_thenInsertInBatches() {
+        // Given
+        int numberEmployees = EmployeeServiceImpl.BATCH_SIZE * 2 + 1;
+        List<Employee> employees = new ArrayList<>();
+        for (int i = 0; i < numberEmployees; i++) {
+            employees.add(Employee.builder()
+                    .firstName(employee.getFirstName())
+                    .lastName(employee.getLastName())
+                    .email(i + employee.getEmail())
+                    .build());
+        }
+        given(employeeRepository.findExistingEmails(anyCollection())).willReturn(Collections.emptySet());
+        given(employeeRepository.saveAll(anyList())).willAnswer((invocation) -> invocation.getArgument(0));
+
+        // When
+        List<Employee> savedEmployees = employeeService.saveAll(employees);
+
+        // Then
+        assertThat(savedEmployees.size()).isEqualTo(numberEmployees);
+        verify(employeeRepository, times(3)).findExistingEmails(anyCollection());
+        verify(employeeRepository, times(3)).saveAll(anyList());
+    }
+
+    @Test
+    public void givenExistingEmail_whenSaveAll_thenThrowExceptionWithoutInserting() {
+        // Given
+        List<Employee> employees = getListOfNewEmployees(3);
+        given(employeeRepository.findExistingEmails(anyCollection())).willReturn(Set.of(employees.get(1).getEmail()));
+
+        // When
+        assertThrows(ResourceConflictException.class, () -> employeeService.saveAll(employees));
+
+        // Then
+        verify(employeeRepository, never()).saveAll(anyList());
+    }
+
+    @Test
+    public void givenDuplicateInsertedConcurrently_whenSaveAll_thenThrowConflictFromFlush() {
+        // Given
+        List<Employee> employees = getListOfNewEmployees(2);
+        given(employeeRepository.findExistingEmails(anyCollection())).willReturn(Collections.emptySet());
+        given(employeeRepository.saveAll(anyList())).willAnswer((invocation) -> invocation.getArgument(0));
+        willThrow(new DataIntegrityViolationException(
+                "duplicate key value violates unique constraint \"" + Employee.EMAIL_CONSTRAINT + "\""))
+                .given(employeeRepository).flush();
+
+        // When
+        assertThrows(ResourceConflictException.class, () -> employeeService.saveAll(employees));
+
+        // Then
+        verify(employeeRepository).flush();
+    }
+
+    @Test
+    public void givenRepeatedEmailInRequest_whenSaveAll_thenThrowExceptionWithoutInserting() {
+        // Given
+        List<Employee> employees = getListOfNewEmployees(2);
+        employees.get(1).setEmail(employees.get(0).getEmail());
+        given(employeeRepository.findExistingEmails(anyCollection())).willReturn(Collections.emptySet());
+
+        // When
+        assertThrows(ResourceConflictException.class, () -> employeeService.saveAll(employees));
+
+        // Then
+        verify(employeeRepository, never()).saveAll(anyList());
     }
 
     @Test
     public void givenEmployeesList_whenGetAllEmployees_thenReturnEmployeesList() {
         // Given
         int numberEmployees = 3;
-        given(employeeRepository.findAll()).willReturn(getListOfNewEmployees(numberEmployees));
+        given(employeeRepository.findAllViews()).willReturn(getListOfNewEmployees(numberEmployees).stream().map(EmployeeServiceTests::view).toList());
 
         // When
-        List<Employee> retrievedEmployeeList = employeeService.getAllEmployees();
+        List<EmployeeView> retrievedEmployeeList = employeeService.getAllEmployees();
 
         // Then
         assertThat(retrievedEmployeeList).isNotNull();
@@ -104,21 +210,80 @@ public class EmployeeServiceTests {
     @Test
     public void givenEmptyEmployeesList_whenGetAllEmployees_thenReturnEmptyEmployeesList() {
         // Given
-        given(employeeRepository.findAll()).willReturn(Collections.emptyList());
+        given(employeeRepository.findAllViews()).willReturn(Collections.emptyList());
 
         // When
-        List<Employee> retrievedEmployeeList = employeeService.getAllEmployees();
+        List<EmployeeView> retrievedEmployeeList = employeeService.getAllEmployees();
 
         // Then
         assertThat(retrievedEmployeeList).isEmpty();
         assertThat(retrievedEmployeeList.size()).isEqualTo(0);
     }
 
+    @Test
+    public void givenOversizedLimit_whenGetEmployeesAfter_thenClampPageSize() {
+        // Given
+        long afterId = 42L;
+        given(employeeRepository.findViewsAfter(eq(afterId), anyInt()))
+                .willReturn(getListOfNewEmployees(2).stream().map(EmployeeServiceTests::view).toList());
+
+        // When
+        List<EmployeeView> retrievedEmployeeList = employeeService.getEmployeesAfter(afterId, Integer.MAX_VALUE);
+
+        // Then
+        assertThat(retrievedEmployeeList.size()).isEqualTo(2);
+        verify(employeeRepository).findViewsAfter(afterId, EmployeeServiceImpl.MAX_PAGE_SIZE);
+    }
+
+    @Test
+    public void givenLastNameOnly_whenSearchEmployees_thenSearchByLastNameWithClampedPage() {
+        // Given
+        EmployeeSummary summary = new EmployeeSummary(employee.getId(), employee.getFirstName(), employee.getLastName(), employee.getEmail());
+        PageRequest expectedPage = PageRequest.of(0, EmployeeServiceImpl.MAX_PAGE_SIZE, Sort.by("firstName", "id"));
+        given(employeeRepository.findByLastName(employee.getLastName(), expectedPage))
+                .willReturn(new SliceImpl<>(List.of(summary), expectedPage, false));
+
+        // When
+        List<EmployeeSummary> retrievedEmployees = employeeService.searchEmployees(employee.getLastName(), " ", -1, Integer.MAX_VALUE).getContent();
+
+        // Then
+        assertThat(retrievedEmployees).containsExactly(summary);
+        verify(employeeRepository, never()).findByLastNameAndFirstName(any(), any(), any());
+    }
+
+    @Test
+    public void givenFirstAndLastName_whenSearchEmployees_thenSearchByBothNames() {
+        // Given
+        PageRequest expectedPage = PageRequest.of(2, 10, Sort.by("firstName", "id"));
+        given(employeeRepository.findByLastNameAndFirstName(employee.getLastName(), employee.getFirstName(), expectedPage))
+                .willReturn(new SliceImpl<>(List.of(), expectedPage, false));
+
+        // When
+        boolean hasContent = employeeService.searchEmployees(employee.getLastName(), employee.getFirstName(), 2, 10).hasContent();
+
+        // Then
+        assertThat(hasContent).isFalse();
+    }
+
+    @Test
+    public void givenQuery_whenSuggestEmployees_thenAnswerFromSearchIndex() {
+        // Given
+        EmployeeSummary summary = EmployeeSummary.of(employee);
+        given(searchIndex.suggest("to", 5)).willReturn(List.of(summary));
+
+        // When
+        List<EmployeeSummary> suggestions = employeeService.suggestEmployees("to", 5);
+
+        // Then
+        assertThat(suggestions).containsExactly(summary);
+        verifyNoInteractions(employeeRepository);
+    }
+
     @Test
     public void givenEmployee_whenGetEmployeeById_thenReturnEmployeeObject() {
         // Given
         long id = employee.getId();
-        given(employeeRepository.findById(id)).willReturn(Optional.of(employee));
+        given(employeeLoader.load(id)).willReturn(Optional.of(employee));
 
         // When
         Employee retrievedEmployee = employeeService.getEmployeeById(id).get();
@@ -127,10 +292,39 @@ public class EmployeeServiceTests {
         assertThat(retrievedEmployee).isNotNull();
     }
 
+    @Test
+    public void givenIdsWithDuplicatesAndUnknownId_whenGetEmployeesByIds_thenKeepRequestOrderAndReportMissing() {
+        // Given
+        Employee first = Employee.builder().id(1L).email("one@gmail.com").build();
+        Employee third = Employee.builder().id(3L).email("three@gmail.com").build();
+        given(employeeRepository.findAllById(List.of(1L, 3L, 99L))).willReturn(List.of(first, third));
+
+        // When
+        EmployeeLookup lookup = employeeService.getEmployeesByIds(new long[]{3, 99, 1, 3});
+
+        // Then
+        assertThat(lookup.employees()).containsExactly(third, first);
+        assertThat(lookup.missingIds()).containsExactly(99L);
+    }
+
+    @Test
+    public void givenMoreIdsThanOneChunk_whenGetEmployeesByIds_thenQueryInChunks() {
+        // Given
+        long[] ids = LongStream.rangeClosed(1, EmployeeServiceImpl.ID_CHUNK_SIZE + 1).toArray();
+        given(employeeRepository.findAllById(anyIterable())).willReturn(List.of());
+
+        // When
+        EmployeeLookup lookup = employeeService.getEmployeesByIds(ids);
+
+        // Then
+        assertThat(lookup.missingIds()).hasSize(ids.length);
+        verify(employeeRepository, times(2)).findAllById(anyIterable());
+    }
+
     @Test
     public void givenEmployeeObject_whenUpdateEmployee_thenReturnEmployeeUpdated() {
         // Given
-        given(employeeRepository.save(employee)).willReturn(employee);
+        given(employeeRepository.saveAndFlush(employee)).willReturn(employee);
 
         String updatedFirstName = "myNewName";
         String updatedEmail = "mynewEmail@gmail.com";
@@ -145,15 +339,127 @@ public class EmployeeServiceTests {
         assertThat(updatedEmployee.getEmail()).isEqualTo(updatedEmail);
     }
 
+    @Test
+    public void givenEmployeeChanges_whenPatchEmployee_thenReturnTrue() {
+        // Given
+        Employee changes = Employee.builder().email("mynewEmail@gmail.com").build();
+        given(employeeRepository.patchEmployee(employee.getId(), changes)).willReturn(1);
+
+        // When
+        boolean patched = employeeService.patchEmployee(employee.getId(), changes);
+
+        // Then
+        assertThat(patched).isTrue();
+        verify(employeeRepository, never()).findById(anyLong());
+        verify(employeeRepository, never()).save(any(Employee.class));
+    }
+
+    @Test
+    public void givenUnknownEmployeeId_whenPatchEmployee_thenReturnFalse() {
+        // Given
+        Employee changes = Employee.builder().firstName("myNewName").build();
+        given(employeeRepository.patchEmployee(employee.getId(), changes)).willReturn(0);
+
+        // When
+        boolean patched = employeeService.patchEmployee(employee.getId(), changes);
+
+        // Then
+        assertThat(patched).isFalse();
+        verify(employeeRepository, never()).existsById(anyLong());
+    }
+
+    @Test
+    public void givenStaleVersion_whenPatchEmployee_thenThrowConflict() {
+        // Given
+        Employee changes = Employee.builder().firstName("myNewName").version(3L).build();
+        given(employeeRepository.patchEmployee(employee.getId(), changes)).willReturn(0);
+        given(employeeRepository.existsById(employee.getId())).willReturn(true);
+
+        // When
+        assertThrows(ResourceConflictException.class, () -> employeeService.patchEmployee(employee.getId(), changes));
+    }
+
     @Test
     public void givenEmployeeId_whenDeleteEmployee_thenEmployeeNoMoreExist() {
         // Given
-        willDoNothing().given(employeeRepository).deleteById(employee.getId());
+        given(employeeRepository.deleteByIds(List.of(employee.getId()))).willReturn(1);
+
+        // When
+        boolean deleted = employeeService.deleteEmployee(employee.getId());
+
+        // Then
+        assertThat(deleted).isTrue();
+        verify(employeeRepository, times(1)).deleteByIds(List.of(employee.getId()));
+        verify(employeeRepository, never()).findById(anyLong());
+        verify(eventPublisher).publishEvent(new EmployeeEvent.Deleted(List.of(employee.getId())));
+    }
+
+    @Test
+    public void givenInvalidEmployeeId_whenDeleteEmployee_thenReturnFalse() {
+        // Given
+        given(employeeRepository.deleteByIds(List.of(employee.getId()))).willReturn(0);
 
         // When
-        employeeService.deleteEmployee(employee.getId());
+        boolean deleted = employeeService.deleteEmployee(employee.getId());
 
         // Then
-        verify(employeeRepository, times(1)).deleteById(employee.getId());
+        assertThat(deleted).isFalse();
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+
+    @Test
+    public void givenManyEmployeeIds_whenDeleteEmployees_thenDeleteInChunks() {
+        // Given
+        List<Long> ids = new ArrayList<>();
+        for (long id = 1; id <= EmployeeServiceImpl.ID_CHUNK_SIZE + 1; id++) {
+            ids.add(id);
+        }
+        ids.add(1L);
+        given(employeeRepository.findIdsForDelete(anyCollection()))
+                .willAnswer((invocation) -> new ArrayList<Long>(invocation.getArgument(0)));
+        given(employeeRepository.deleteByIds(anyCollection())).willAnswer((invocation) -> {
+            Collection<Long> chunk = invocation.getArgument(0);
+            return chunk.size();
+        });
+
+        // When
+        int deletedRows = employeeService.deleteEmployees(ids);
+
+        // Then
+        assertThat(deletedRows).isEqualTo(EmployeeServiceImpl.ID_CHUNK_SIZE + 1);
+        verify(employeeRepository, times(2)).deleteByIds(anyCollection());
+    }
+
+    @Test
+    public void givenExistingAndUnknownIds_whenDeleteEmployees_thenPublishOnlyExistingIds() {
+        // Given
+        given(employeeRepository.findIdsForDelete(List.of(1L, 2L, 3L))).willReturn(List.of(1L, 3L));
+        given(employeeRepository.deleteByIds(List.of(1L, 3L))).willReturn(2);
+
+        // When
+        int deletedRows = employeeService.deleteEmployees(List.of(1L, 2L, 3L));
+
+        // Then
+        assertThat(deletedRows).isEqualTo(2);
+        verify(eventPublisher).publishEvent(new EmployeeEvent.Deleted(List.of(1L, 3L)));
+    }
+
+    @Test
+    public void givenOnlyUnknownIds_whenDeleteEmployees_thenPublishNothing() {
+        // Given
+        given(employeeRepository.findIdsForDelete(List.of(8L, 9L))).willReturn(List.of());
+
+        // When
+        int deletedRows = employeeService.deleteEmployees(List.of(8L, 9L));
+
+        // Then
+        assertThat(deletedRows).isZero();
+        verify(employeeRepository, never()).deleteByIds(anyCollection());
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+
+    private static EmployeeView view(Employee employee) {
+        return new EmployeeView(employee.getId(), employee.getFirstName(), employee.getLastName(), employee.getEmail(),
+                employee.getVersion(), employee.getUpdatedAt());
     }
 }
@@ -0,0 +1,157 @@
+package com.practice.springboottesting.writebehind;
+
+import com.practice.springboottesting.exception.ResourceConflictException;
+import com.practice.springboottesting.model.Employee;
+import com.practice.springboottesting.service.EmployeeService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.boot.web.context.WebServerGracefulShutdownLifecycle;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+public class EmployeeWriteBehindQueueTests {
+
+    @Mock
+    private EmployeeService employeeService;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private EmployeeWriteBehindQueue writeBehindQueue;
+
+    private Employee tom;
+
+    private Employee tim;
+
+    @BeforeEach
+    public void setup() {
+        meterRegistry = new SimpleMeterRegistry();
+        writeBehindQueue = new EmployeeWriteBehindQueue(employeeService, meterRegistry, 2, 10, Duration.ofMinutes(1), 100);
+        writeBehindQueue.acceptSubmissions();
+        tom = Employee.builder().firstName("Tom").lastName("lin").email("lin@gmail.com").build();
+        tim = Employee.builder().firstName("Tim").lastName("lang").email("lang@gmail.com").build();
+    }
+
+    @Test
+    public void givenFullQueue_whenSubmit_thenRejectWithoutTrackingId() {
+        // Given
+        writeBehindQueue.submit(tom);
+        writeBehindQueue.submit(tim);
+
+        // When
+        Optional<UUID> trackingId = writeBehindQueue.submit(Employee.builder().email("third@gmail.com").build());
+
+        // Then
+        assertThat(trackingId).isEmpty();
+        assertThat(meterRegistry.get("employee.write_behind.queue.size").gauge().value()).isEqualTo(2);
+        assertThat(meterRegistry.get("employee.write_behind.rejected").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    public void givenQueuedEmployees_whenWriteNextBatch_thenSaveThemTogether() throws InterruptedException {
+        // Given
+        UUID tomId = writeBehindQueue.submit(tom).orElseThrow();
+        UUID timId = writeBehindQueue.submit(tim).orElseThrow();
+        given(employeeService.saveAll(List.of(tom, tim))).willReturn(List.of(withId(tom, 1L), withId(tim, 2L)));
+
+        // When
+        WriteStatus statusBefore = writeBehindQueue.getStatus(tomId).orElseThrow();
+        writeBehindQueue.writeNextBatch(0);
+
+        // Then
+        assertThat(statusBefore.state()).isEqualTo(WriteStatus.State.PENDING);
+        assertThat(writeBehindQueue.getStatus(tomId)).contains(WriteStatus.created(1L));
+        assertThat(writeBehindQueue.getStatus(timId)).contains(WriteStatus.created(2L));
+        verify(employeeService, never()).save(tom);
+    }
+
+    @Test
+    public void givenDuplicateInBatch_whenWriteNextBatch_thenRejectOnlyTheDuplicate() throws InterruptedException {
+        // Given
+        UUID tomId = writeBehindQueue.submit(tom).orElseThrow();
+        UUID timId = writeBehindQueue.submit(tim).orElseThrow();
+        given(employeeService.saveAll(anyList())).willThrow(new ResourceConflictException("Employee already exist with given emails:[lang@gmail.com]"));
+        given(employeeService.save(tom)).willReturn(withId(tom, 1L));
+        given(employeeService.save(tim)).willThrow(new ResourceConflictException("Employee already exist with given email:lang@gmail.com"));
+
+        // When
+        writeBehindQueue.writeNextBatch(0);
+
+        // Then
+        assertThat(writeBehindQueue.getStatus(tomId)).contains(WriteStatus.created(1L));
+        assertThat(writeBehindQueue.getStatus(timId)).contains(WriteStatus.rejected("Employee already exist with given email:lang@gmail.com"));
+    }
+
+    @Test
+    public void givenStoppedQueue_whenSubmit_thenReject() {
+        // Given
+        EmployeeWriteBehindQueue stoppedQueue =
+                new EmployeeWriteBehindQueue(employeeService, meterRegistry, 2, 10, Duration.ofMinutes(1), 100);
+
+        // When
+        Optional<UUID> trackingId = stoppedQueue.submit(tom);
+
+        // Then
+        assertThat(trackingId).isEmpty();
+        assertThat(stoppedQueue.isRunning()).isFalse();
+    }
+
+    @Test
+    public void givenWebServerLifecycle_whenGetPhase_thenStopAfterWebServer() {
+        // Given the phase of the web server's graceful shutdown
+
+        // When
+        int phase = writeBehindQueue.getPhase();
+
+        // Then
+        assertThat(phase).isLessThan(WebServerGracefulShutdownLifecycle.SMART_LIFECYCLE_PHASE - 1024);
+    }
+
+    @Test
+    public void givenBatchFailure_whenWriteNextBatch_thenRetryEachAsNewEmployee() throws InterruptedException {
+        // Given a batch that assigned ids and versions before it was rolled back
+        UUID tomId = writeBehindQueue.submit(tom).orElseThrow();
+        UUID timId = writeBehindQueue.submit(tim).orElseThrow();
+        given(employeeService.saveAll(anyList())).willAnswer(invocation -> {
+            tom.setId(51L);
+            tom.setVersion(0L);
+            tim.setId(52L);
+            tim.setVersion(0L);
+            throw new DataIntegrityViolationException("value too long for column first_name");
+        });
+        given(employeeService.save(tom)).willReturn(withId(tom, 1L));
+        given(employeeService.save(tim)).willThrow(new DataIntegrityViolationException("value too long for column first_name"));
+
+        // When
+        writeBehindQueue.writeNextBatch(0);
+
+        // Then
+        assertThat(writeBehindQueue.getStatus(tomId)).contains(WriteStatus.created(1L));
+        assertThat(writeBehindQueue.getStatus(timId)).contains(WriteStatus.failed("value too long for column first_name"));
+        assertThat(tom.getVersion()).isNull();
+        assertThat(tom.getId()).isZero();
+    }
+
+    private static Employee withId(Employee employee, long id) {
+        return Employee.builder()
+                .id(id)
+                .firstName(employee.getFirstName())
+                .lastName(employee.getLastName())
+                .email(employee.getEmail())
+                .build();
+    }
+}
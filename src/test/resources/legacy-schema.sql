@@ -0,0 +1,13 @@
+-- employees as ddl-auto=update created it before the migrations existed: identity ids, no version, no updated_at,
+-- no unique email. H2 runs this on every new connection, so it has to be repeatable.
+create table if not exists employees (
+    id bigint generated by default as identity primary key,
+    first_name varchar(255) not null,
+    last_name varchar(255) not null,
+    email varchar(255) not null
+);
+
+merge into employees (id, first_name, last_name, email) key (id) values
+    (1, 'Tom', 'lin', 'lin@gmail.com'),
+    (2, 'Tim', 'lang', 'lang@gmail.com'),
+    (3, 'Ann', 'lee', 'lee@gmail.com');
@@ -0,0 +1,8 @@
+create table if not exists employees (
+    id bigint not null primary key,
+    first_name varchar(255) not null,
+    last_name varchar(255) not null,
+    email varchar(255) not null,
+    version bigint not null,
+    updated_at timestamp(6) with time zone not null default current_timestamp
+);